@@ -44,20 +44,15 @@ public class Main {
         // Sort by arrival time
         processes.sort(Comparator.comparingInt(p -> p.arrivalTime));
 
-        Queue<Process> readyQueue = new LinkedList<>();
-        int time = 0, completed = 0;
-        boolean[] added = new boolean[n];
+        Queue<Process> readyQueue = new ArrayDeque<>();
+        int time = 0, completed = 0, next = 0;
 
         System.out.println("\n--- Round Robin Scheduling Runtime Simulation ---\n");
 
         while (completed < n) {
             // Add arrived processes to readyQueue
-            for (int i = 0; i < n; i++) {
-                Process p = processes.get(i);
-                if (!added[i] && p.arrivalTime <= time) {
-                    readyQueue.add(p);
-                    added[i] = true;
-                }
+            while (next < n && processes.get(next).arrivalTime <= time) {
+                readyQueue.add(processes.get(next++));
             }
 
             if (readyQueue.isEmpty()) {
@@ -97,12 +92,8 @@ public class Main {
             current.remainingTime -= execTime;
 
             // Check again for new arrivals during execution
-            for (int i = 0; i < n; i++) {
-                Process p = processes.get(i);
-                if (!added[i] && p.arrivalTime <= time) {
-                    readyQueue.add(p);
-                    added[i] = true;
-                }
+            while (next < n && processes.get(next).arrivalTime <= time) {
+                readyQueue.add(processes.get(next++));
             }
 
             if (current.remainingTime == 0) {
@@ -0,0 +1,18 @@
+package SchedulingSimulator;
+
+/*
+ * Stream of processes in non-decreasing arrival order. The engines pull one
+ * record at a time, so a source can be a ProcessTable, a generator or a trace
+ * file without the whole workload ever being held in memory.
+ */
+interface ArrivalSource {
+
+    // Advances to the next process; false once the source is exhausted.
+    boolean next();
+
+    int arrival();
+
+    int burst();
+
+    int priority();
+}
@@ -0,0 +1,387 @@
+package SchedulingSimulator;
+
+import java.io.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/*
+ * Non-interactive mode: runs a workload through EventEngine with no sleeps or
+ * per-tick output and returns a ScheduleResult.
+ *
+ * Text workload file: one process per line as "arrival burst [priority]".
+ * Blank lines and text after '#' are ignored. PIDs are assigned in file order.
+ * A text file is loaded into a ProcessTable; a binary TraceFile or a "gen:<n>"
+ * WorkloadGenerator spec is streamed straight into the engine instead.
+ */
+class BatchRunner {
+
+    enum Algorithm {
+        FCFS,
+        PRIORITY,
+        RR,
+        SRTF,
+        MLFQ,
+        LOTTERY,
+        STRIDE;
+
+        boolean usesQuantum() {
+            return this != FCFS && this != PRIORITY && this != SRTF;
+        }
+
+        SchedulingPolicy create(int quantum, Options o) {
+            switch (this) {
+                case FCFS: return new FcfsPolicy();
+                case PRIORITY: return new PreemptivePolicy(false, o.queue);
+                case RR: return new RoundRobinPolicy(quantum);
+                case SRTF: return new PreemptivePolicy(true, o.queue);
+                case MLFQ: return new MlfqPolicy(o.levels, quantum, o.boost > 0 ? o.boost : 50 * quantum);
+                case LOTTERY: return new LotteryPolicy(quantum, o.policySeed);
+                default: return new StridePolicy(quantum, o.queue);
+            }
+        }
+    }
+
+    // Policy settings other than the quantum, which the sweep varies per cell.
+    static class Options {
+        ReadyQueue.Kind queue = ReadyQueue.Kind.DARY;
+        int levels = 3;
+        int boost = 0; // 0 means 50 quanta
+        long policySeed = 1;
+
+        static final String USAGE = "[--queue binary|pairing|dary] [--levels n] [--boost t] [--policy-seed n]";
+
+        // Applies one command-line option; false if the flag is not a policy option.
+        boolean option(String flag, String value) {
+            switch (flag) {
+                case "--queue":
+                    queue = ReadyQueue.Kind.valueOf(value.toUpperCase());
+                    return true;
+                case "--levels":
+                    levels = Integer.parseInt(value);
+                    if (levels <= 0)
+                        throw new IllegalArgumentException("levels");
+                    return true;
+                case "--boost":
+                    boost = Integer.parseInt(value);
+                    return true;
+                case "--policy-seed":
+                    policySeed = Long.parseLong(value);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    static ScheduleResult run(ProcessTable table, Algorithm algorithm, int quantum, Options options) {
+        return run(table, algorithm.create(quantum, options));
+    }
+
+    static ScheduleResult run(ProcessTable table, SchedulingPolicy policy) {
+        return run(table, policy, null);
+    }
+
+    static ScheduleResult run(ProcessTable table, SchedulingPolicy policy, TimelineSink timeline) {
+        EventEngine engine = EventEngine.run(table, policy, timeline);
+        ScheduleResult result = new ScheduleResult(policy.name(), table);
+        result.engineCounts(engine.decisions, engine.contextSwitches);
+        return result;
+    }
+
+    // Streams the source through the engine; only aggregates are kept.
+    static ScheduleResult run(ArrivalSource source, SchedulingPolicy policy) {
+        return run(source, policy, null);
+    }
+
+    static ScheduleResult run(ArrivalSource source, SchedulingPolicy policy, TimelineSink timeline) {
+        ScheduleResult result = new ScheduleResult(policy.name());
+        EventEngine engine = new EventEngine(source, result);
+        engine.timeline = timeline;
+        engine.run(policy);
+        result.engineCounts(engine.decisions, engine.contextSwitches);
+        return result;
+    }
+
+    static ProcessTable readWorkload(String path) throws IOException {
+        ProcessTable table = new ProcessTable(1024);
+        if (TraceFile.isTrace(path)) {
+            try (TraceFile.Replay trace = TraceFile.open(path)) {
+                while (trace.next()) {
+                    table.add(table.size + 1, trace.arrival(), trace.burst(), trace.priority());
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // a bad record
+            }
+            return table;
+        }
+
+        try (Reader in = new BufferedReader(new FileReader(path), 1 << 16)) {
+            StreamTokenizer tok = new StreamTokenizer(in);
+            tok.resetSyntax();
+            tok.wordChars('0', '9');
+            tok.wordChars('-', '-');
+            tok.whitespaceChars(0, ' ');
+            tok.commentChar('#');
+            tok.eolIsSignificant(true);
+
+            int[] fields = new int[3];
+            int count = 0, line = 1;
+            while (true) {
+                int token = tok.nextToken();
+                if (token == StreamTokenizer.TT_EOL || token == StreamTokenizer.TT_EOF) {
+                    if (count == 1)
+                        throw new IOException(path + ":" + line + ": expected \"arrival burst [priority]\"");
+                    if (count > 0 && fields[0] < 0)
+                        throw new IOException(path + ":" + line + ": negative arrival " + fields[0]);
+                    if (count > 0 && fields[1] <= 0)
+                        throw new IOException(path + ":" + line + ": burst must be positive, got " + fields[1]);
+                    if (count > 0)
+                        table.add(table.size + 1, fields[0], fields[1], count == 3 ? fields[2] : 0);
+                    if (token == StreamTokenizer.TT_EOF)
+                        break;
+                    count = 0;
+                    line++;
+                } else if (token == StreamTokenizer.TT_WORD && count < 3) {
+                    fields[count++] = parseInt(tok.sval, path, line);
+                } else {
+                    throw new IOException(path + ":" + line + ": unexpected token");
+                }
+            }
+        }
+        return table;
+    }
+
+    private static int parseInt(String s, String path, int line) throws IOException {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            throw new IOException(path + ":" + line + ": not a number: " + s);
+        }
+    }
+
+    static final String USAGE = "Usage: SchedulingSimulator --batch <fcfs|priority|rr|srtf|mlfq|lottery|stride>"
+            + " <workload-file|gen:n> [quantum] " + Options.USAGE + " " + WorkloadGenerator.OPTIONS
+            + " [--cores k] [--placement round_robin|least] [--affinity strict|none] [--gantt file]\n"
+            + "       SchedulingSimulator --view <gantt-file> [from] [to] [--width n] [--limit n]\n"
+            + "       SchedulingSimulator --generate <trace-file> <n> " + WorkloadGenerator.OPTIONS;
+
+    static void cli(String[] args) throws IOException, InterruptedException {
+        if (args.length < 3 || !args[0].equals("--batch")) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        Algorithm algorithm;
+        try {
+            algorithm = Algorithm.valueOf(args[1].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unknown algorithm: " + args[1]);
+            return;
+        }
+
+        String workload = args[2];
+        WorkloadGenerator generator = null;
+        int quantum = 2;
+        Options policyOptions = new Options();
+        int cores = 1;
+        MultiCoreEngine.Placement placement = MultiCoreEngine.Placement.ROUND_ROBIN;
+        boolean strictAffinity = true;
+        String gantt = null;
+        try {
+            if (workload.startsWith("gen:"))
+                generator = new WorkloadGenerator(Integer.parseInt(workload.substring(4)));
+            WorkloadGenerator options = generator != null ? generator : new WorkloadGenerator(0);
+            for (int i = 3; i < args.length; i++) {
+                if (i + 1 < args.length && policyOptions.option(args[i], args[i + 1]))
+                    i++;
+                else if (args[i].equals("--cores") && i + 1 < args.length)
+                    cores = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--placement") && i + 1 < args.length)
+                    placement = args[++i].equals("least") ? MultiCoreEngine.Placement.LEAST_LOADED
+                            : MultiCoreEngine.Placement.valueOf(args[i].toUpperCase());
+                else if (args[i].equals("--affinity") && i + 1 < args.length && args[i + 1].matches("strict|none"))
+                    strictAffinity = args[++i].equals("strict");
+                else if (args[i].equals("--gantt") && i + 1 < args.length)
+                    gantt = args[++i];
+                else if (i + 1 < args.length && options.option(args[i], args[i + 1]))
+                    i++;
+                else
+                    quantum = Integer.parseInt(args[i]);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE);
+            return;
+        }
+        if (cores <= 0) {
+            System.out.println("Number of cores must be positive.");
+            return;
+        }
+        if (algorithm.usesQuantum() && quantum <= 0) {
+            System.out.println("Time quantum must be positive.");
+            return;
+        }
+
+        if (cores > 1) {
+            runSmp(algorithm, quantum, policyOptions, workload, generator, cores, placement, strictAffinity, gantt);
+            return;
+        }
+
+        SchedulingPolicy policy = algorithm.create(quantum, policyOptions);
+        ScheduleResult result;
+        long begin;
+        if (generator != null) {
+            try (GanttTrace.Writer timeline = timeline(gantt, null)) {
+                begin = System.nanoTime();
+                result = run(generator, policy, timeline);
+            }
+        } else if (TraceFile.isTrace(workload)) {
+            try (TraceFile.Replay trace = TraceFile.open(workload);
+                    GanttTrace.Writer timeline = timeline(gantt, null)) {
+                begin = System.nanoTime();
+                result = run(trace, policy, timeline);
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // a bad record
+            }
+        } else {
+            ProcessTable table = readWorkload(workload);
+            try (GanttTrace.Writer timeline = timeline(gantt, table)) {
+                begin = System.nanoTime();
+                result = run(table, policy, timeline);
+            }
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        result.print();
+        System.out.printf("%-22s %.3f ms\n", "Simulation Time", elapsed / 1e6);
+        if (gantt != null)
+            System.out.println("Gantt timeline written to " + gantt);
+    }
+
+    // null when no --gantt file was asked for. A table is sorted first so the
+    // writer can map arrival order back to its pids.
+    private static GanttTrace.Writer timeline(String path, ProcessTable table) throws IOException {
+        if (path == null)
+            return null;
+        if (table == null)
+            return new GanttTrace.Writer(path, null);
+        table.sortByArrival();
+        return new GanttTrace.Writer(path, table.pid);
+    }
+
+    // One policy instance per core. A table with round-robin placement and strict
+    // affinity is split across cores and simulated in parallel.
+    private static void runSmp(Algorithm algorithm, int quantum, Options policyOptions, String workload,
+            WorkloadGenerator generator, int cores, MultiCoreEngine.Placement placement, boolean strictAffinity,
+            String gantt) throws IOException, InterruptedException {
+        Supplier<SchedulingPolicy> policy = () -> algorithm.create(quantum, policyOptions);
+        String name = policy.get().name();
+        ScheduleResult result;
+        MultiCoreEngine.CoreStats stats;
+        long begin;
+        if (generator != null || TraceFile.isTrace(workload)) {
+            result = new ScheduleResult(name);
+            try (TraceFile.Replay trace = generator == null ? TraceFile.open(workload) : null;
+                    GanttTrace.Writer timeline = timeline(gantt, null)) {
+                ArrivalSource source = generator != null ? generator : trace;
+                begin = System.nanoTime();
+                MultiCoreEngine engine = new MultiCoreEngine(source, result, cores, policy, placement, strictAffinity);
+                engine.timeline = timeline;
+                engine.run();
+                stats = engine.stats;
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // a bad record
+            }
+        } else {
+            ProcessTable table = readWorkload(workload);
+            begin = System.nanoTime();
+            if (placement == MultiCoreEngine.Placement.ROUND_ROBIN && strictAffinity && gantt == null) {
+                try {
+                    stats = MultiCoreEngine.runIndependent(table, cores, policy,
+                            Math.min(cores, Runtime.getRuntime().availableProcessors()));
+                } catch (ExecutionException e) {
+                    throw new IOException("parallel run failed", e.getCause());
+                }
+            } else {
+                try (GanttTrace.Writer timeline = timeline(gantt, table)) {
+                    stats = MultiCoreEngine.run(table, cores, policy, placement, strictAffinity, timeline);
+                }
+            }
+            result = new ScheduleResult(name, table);
+        }
+        long elapsed = System.nanoTime() - begin;
+        result.engineCounts(stats.decisions, stats.contextSwitches);
+
+        result.print();
+        stats.print();
+        System.out.printf("%-22s %.3f ms\n", "Simulation Time", elapsed / 1e6);
+        if (gantt != null)
+            System.out.println("Gantt timeline written to " + gantt);
+    }
+
+    static final String IO_USAGE = "Usage: SchedulingSimulator --io <fcfs|priority|rr|srtf|mlfq|lottery|stride>"
+            + " <io-workload-file|gen:n> [quantum] [--devices d] " + Options.USAGE + " " + WorkloadGenerator.OPTIONS
+            + " " + IoWorkload.OPTIONS;
+
+    // CPU/I-O workloads: a file of "arrival priority cpu [io cpu]..." lines or a
+    // generated mix, run through IoEngine.
+    static void io(String[] args) throws IOException {
+        Algorithm algorithm;
+        IoWorkload workload;
+        int quantum = 2, devices = 1;
+        Options policyOptions = new Options();
+        try {
+            if (args.length < 3)
+                throw new IllegalArgumentException();
+            algorithm = Algorithm.valueOf(args[1].toUpperCase());
+            WorkloadGenerator generator = new WorkloadGenerator(
+                    args[2].startsWith("gen:") ? Integer.parseInt(args[2].substring(4)) : 0);
+            IoWorkload.Mix mix = new IoWorkload.Mix();
+            for (int i = 3; i < args.length; i++) {
+                if (args[i].equals("--devices") && i + 1 < args.length)
+                    devices = Integer.parseInt(args[++i]);
+                else if (i + 1 < args.length && (policyOptions.option(args[i], args[i + 1])
+                        || generator.option(args[i], args[i + 1]) || mix.option(args[i], args[i + 1])))
+                    i++;
+                else
+                    quantum = Integer.parseInt(args[i]);
+            }
+            if (quantum <= 0 || devices <= 0)
+                throw new IllegalArgumentException();
+            workload = args[2].startsWith("gen:") ? IoWorkload.generate(generator, mix) : IoWorkload.read(args[2]);
+        } catch (IllegalArgumentException e) {
+            System.out.println(IO_USAGE);
+            return;
+        }
+
+        SchedulingPolicy policy = algorithm.create(quantum, policyOptions);
+        ScheduleResult result = new ScheduleResult(policy.name());
+        long begin = System.nanoTime();
+        IoEngine.IoStats stats = IoEngine.run(workload, result, policy, devices);
+        long elapsed = System.nanoTime() - begin;
+        result.engineCounts(stats.decisions, stats.contextSwitches);
+
+        result.print();
+        stats.print();
+        System.out.printf("%-22s %.3f ms\n", "Simulation Time", elapsed / 1e6);
+    }
+
+    // Usage: --generate <trace-file> <n> [generator options]
+    static void generate(String[] args) throws IOException {
+        WorkloadGenerator generator;
+        try {
+            if (args.length < 3)
+                throw new IllegalArgumentException();
+            generator = new WorkloadGenerator(Integer.parseInt(args[2]));
+            for (int i = 3; i < args.length; i += 2) {
+                if (i + 1 >= args.length || !generator.option(args[i], args[i + 1]))
+                    throw new IllegalArgumentException(args[i]);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        long written = TraceFile.write(generator, args[1]);
+        System.out.println("Wrote " + written + " processes to " + args[1]);
+    }
+}
@@ -0,0 +1,59 @@
+package SchedulingSimulator;
+
+import java.util.concurrent.*;
+
+/*
+ * CompletionSink that publishes each completion as an event to any number of
+ * Flow subscribers. Delivery is asynchronous and per subscriber in order; once
+ * a subscriber's buffer is full the engine waits for it, so a slow consumer
+ * slows the simulation rather than losing events.
+ */
+class CompletionPublisher implements CompletionSink, AutoCloseable {
+
+    static final class Completion {
+        final int seq, arrival, burst, priority;
+        final long start, completion;
+
+        Completion(int seq, int arrival, int burst, int priority, long start, long completion) {
+            this.seq = seq;
+            this.arrival = arrival;
+            this.burst = burst;
+            this.priority = priority;
+            this.start = start;
+            this.completion = completion;
+        }
+
+        long turnaround() {
+            return completion - arrival;
+        }
+
+        long waiting() {
+            return completion - arrival - burst;
+        }
+
+        long response() {
+            return start - arrival;
+        }
+    }
+
+    // Default executor and Flow.defaultBufferSize() per subscriber.
+    private final SubmissionPublisher<Completion> publisher = new SubmissionPublisher<>();
+
+    void subscribe(Flow.Subscriber<? super Completion> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    // Feeds every completion into a sink on the subscriber thread; the returned
+    // future completes once the stream has ended.
+    CompletableFuture<Void> forward(CompletionSink sink) {
+        return publisher.consume(c -> sink.completed(c.seq, c.arrival, c.burst, c.priority, c.start, c.completion));
+    }
+
+    public void completed(int seq, int arrival, int burst, int priority, long start, long completion) {
+        publisher.submit(new Completion(seq, arrival, burst, priority, start, completion));
+    }
+
+    public void close() {
+        publisher.close();
+    }
+}
@@ -0,0 +1,10 @@
+package SchedulingSimulator;
+
+/*
+ * Receives each process as it completes. seq is the process's position in its
+ * ArrivalSource (0-based), which is how a sink maps results back to a row.
+ */
+interface CompletionSink {
+
+    void completed(int seq, int arrival, int burst, int priority, long start, long completion);
+}
@@ -0,0 +1,189 @@
+package SchedulingSimulator;
+
+import java.util.*;
+
+/*
+ * Discrete-event versions of the FCFS, preemptive priority, Round Robin and SRTF
+ * simulations.
+ *
+ * The tick loops in SchedulingSimulator advance time by one unit per iteration and
+ * rescan every process each tick. Here the clock jumps straight to the next arrival
+ * or completion instead, so a run costs O((n + context switches) log n) no matter
+ * how long the bursts are. Start and completion times (and so turnaround and
+ * waiting) are the same as the tick loops produce.
+ *
+ * An engine pulls processes from an ArrivalSource only once they have arrived and
+ * hands each one to a CompletionSink as soon as it finishes. In between, a process
+ * lives in a recycled slot of the columns below, so memory is bounded by the
+ * number of processes in the system at once rather than by the trace length.
+ * The static ProcessTable entry points use the table as both source and sink.
+ *
+ * Who runs and for how long is up to a SchedulingPolicy; run() is the one
+ * single-CPU event loop all of them share (MultiCoreEngine adds the SMP one).
+ */
+class EventEngine {
+    final ArrivalSource source;
+    private final CompletionSink sink;
+    boolean pending; // source is positioned on a process that has not been admitted yet
+    private int admitted = 0;
+    private int lastArrival = Integer.MIN_VALUE;
+    long time = 0;
+
+    // A context switch is a dispatch of a different process from the one that
+    // last held the CPU; a preempted process picked again does not count.
+    long decisions = 0, contextSwitches = 0;
+    private int lastSeq = -1;
+
+    TimelineSink timeline; // optional; gets every stretch of CPU time
+
+    // Live processes by slot, readable by policies; seq is the position in the
+    // source and is what policies break ties on.
+    int[] seq, arrival, burst, remaining, priority;
+    long[] start;
+    private int[] free;
+    private int freeCount = 0, slotsUsed = 0;
+
+    EventEngine(ArrivalSource source, CompletionSink sink) {
+        this.source = source;
+        this.sink = sink;
+        int n = 64;
+        seq = new int[n];
+        arrival = new int[n];
+        burst = new int[n];
+        remaining = new int[n];
+        priority = new int[n];
+        start = new long[n];
+        free = new int[n];
+        pending = source.next();
+    }
+
+    static EventEngine run(ProcessTable t, SchedulingPolicy policy) {
+        return run(t, policy, null);
+    }
+
+    static EventEngine run(ProcessTable t, SchedulingPolicy policy, TimelineSink timeline) {
+        t.sortByArrival();
+        t.reset();
+        EventEngine engine = new EventEngine(t.rows(), t);
+        engine.timeline = timeline;
+        engine.run(policy);
+        return engine;
+    }
+
+    static void fcfs(ProcessTable t) {
+        run(t, new FcfsPolicy());
+    }
+
+    static void priority(ProcessTable t) {
+        priority(t, ReadyQueue.Kind.DARY);
+    }
+
+    static void priority(ProcessTable t, ReadyQueue.Kind queue) {
+        run(t, new PreemptivePolicy(false, queue));
+    }
+
+    static void srtf(ProcessTable t) {
+        srtf(t, ReadyQueue.Kind.DARY);
+    }
+
+    static void srtf(ProcessTable t, ReadyQueue.Kind queue) {
+        run(t, new PreemptivePolicy(true, queue));
+    }
+
+    static void roundRobin(ProcessTable t, int quantum) {
+        run(t, new RoundRobinPolicy(quantum));
+    }
+
+    void run(SchedulingPolicy policy) {
+        policy.attach(this);
+        boolean preempts = policy.preemptsOnArrival();
+
+        while (pending || !policy.isEmpty()) {
+            admitArrivals(policy);
+
+            if (policy.isEmpty()) {
+                time = source.arrival(); // CPU idle until the next arrival
+                continue;
+            }
+
+            int p = policy.pick(time);
+            if (start[p] == -1)
+                start[p] = time;
+            lastSeq = dispatched(p, lastSeq);
+
+            // Run for the slice, or until the next arrival if arrivals preempt.
+            int run = Math.min(remaining[p], policy.slice(p));
+            if (preempts && pending)
+                run = (int) Math.min(run, source.arrival() - time);
+            time += run;
+            remaining[p] -= run;
+            policy.ran(p, run);
+            if (timeline != null)
+                timeline.segment(0, seq[p], time - run, time);
+
+            if (remaining[p] == 0) {
+                policy.finished(p);
+                finish(p);
+            } else {
+                admitArrivals(policy);
+                policy.requeue(p);
+            }
+        }
+    }
+
+    // Counts the decision; returns the seq now holding the CPU.
+    int dispatched(int slot, int previousSeq) {
+        decisions++;
+        if (previousSeq != -1 && previousSeq != seq[slot])
+            contextSwitches++;
+        return seq[slot];
+    }
+
+    private void admitArrivals(SchedulingPolicy policy) {
+        while (pending && source.arrival() <= time) {
+            policy.admit(admit());
+        }
+    }
+
+    // Moves the process the source is positioned on into a free slot.
+    int admit() {
+        int a = source.arrival();
+        if (a < lastArrival)
+            throw new IllegalStateException("Arrival " + a + " after " + lastArrival + ": source is not sorted");
+        lastArrival = a;
+
+        int slot;
+        if (freeCount > 0) {
+            slot = free[--freeCount];
+        } else {
+            if (slotsUsed == seq.length)
+                grow();
+            slot = slotsUsed++;
+        }
+        seq[slot] = admitted++;
+        arrival[slot] = a;
+        burst[slot] = source.burst();
+        remaining[slot] = burst[slot];
+        priority[slot] = source.priority();
+        start[slot] = -1;
+
+        pending = source.next();
+        return slot;
+    }
+
+    void finish(int slot) {
+        sink.completed(seq[slot], arrival[slot], burst[slot], priority[slot], start[slot], time);
+        free[freeCount++] = slot;
+    }
+
+    private void grow() {
+        int n = seq.length * 2;
+        seq = Arrays.copyOf(seq, n);
+        arrival = Arrays.copyOf(arrival, n);
+        burst = Arrays.copyOf(burst, n);
+        remaining = Arrays.copyOf(remaining, n);
+        priority = Arrays.copyOf(priority, n);
+        start = Arrays.copyOf(start, n);
+        free = Arrays.copyOf(free, n);
+    }
+}
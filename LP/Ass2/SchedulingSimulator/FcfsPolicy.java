@@ -0,0 +1,49 @@
+package SchedulingSimulator;
+
+/*
+ * Runs each process to completion in arrival order.
+ */
+class FcfsPolicy implements SchedulingPolicy {
+    private final IntRing queue = new IntRing(64);
+
+    public String name() {
+        return "FCFS";
+    }
+
+    public void attach(EventEngine engine) {
+    }
+
+    public void admit(int slot) {
+        queue.add(slot);
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public int pick(long time) {
+        return queue.poll();
+    }
+
+    public int slice(int slot) {
+        return Integer.MAX_VALUE;
+    }
+
+    public boolean preemptsOnArrival() {
+        return false;
+    }
+
+    public void ran(int slot, int ran) {
+    }
+
+    public void requeue(int slot) {
+        queue.add(slot);
+    }
+
+    public void finished(int slot) {
+    }
+
+    public int steal() {
+        return queue.isEmpty() ? -1 : queue.poll();
+    }
+}
@@ -0,0 +1,257 @@
+package SchedulingSimulator;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+
+/*
+ * Run-length Gantt chart of a schedule on disk. Instead of one line per process
+ * per time unit, the file holds one (core, pid, start, end) segment per stretch
+ * of CPU time; back-to-back slices of the same process on the same core are
+ * merged into one segment as they are recorded.
+ *
+ * Layout: an 8-byte header (magic "SCGT", version), then blocks of up to BLOCK
+ * segments stored column by column - count, then all cores and all pids as
+ * big-endian ints, all starts and all ends as longs - then an index of (offset,
+ * count, min start, max end) per block and a 28-byte trailer (index offset,
+ * block count, cores, segment count, magic). Everything is written through one
+ * buffered channel, and a reader only loads the blocks whose time range meets
+ * the window it is asked for.
+ */
+class GanttTrace {
+    static final int MAGIC = 0x53434754; // "SCGT"
+    static final int VERSION = 2; // 1 had int times
+    static final int BLOCK = 8192;
+    static final int TRAILER = 28;
+    static final int SEGMENT = 24;
+    static final int INDEX_ENTRY = 28;
+
+    interface Visitor {
+        void segment(int core, int pid, long start, long end);
+    }
+
+    static class Writer implements TimelineSink, Closeable {
+        private final FileChannel ch;
+        private final int[] pids; // seq -> pid, or null for pid = seq + 1
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(4 + BLOCK * SEGMENT);
+        private final int[] core = new int[BLOCK], pid = new int[BLOCK];
+        private final long[] start = new long[BLOCK], end = new long[BLOCK];
+        private int buffered = 0;
+        private long position = 0, segments = 0;
+        private int cores = 0;
+
+        // Per core, the segment still open for merging; openSeq -1 if none.
+        private int[] openSeq = new int[0];
+        private long[] openStart = new long[0], openEnd = new long[0];
+
+        private long[] indexOffset = new long[16];
+        private int[] indexCount = new int[16];
+        private long[] indexMin = new long[16], indexMax = new long[16];
+        private int blocks = 0;
+
+        Writer(String path, int[] pids) throws IOException {
+            this.pids = pids;
+            ch = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            buf.putInt(MAGIC).putInt(VERSION);
+            drain();
+        }
+
+        public void segment(int c, int seq, long from, long to) {
+            if (c >= openSeq.length) {
+                int n = c + 1, old = openSeq.length;
+                openSeq = Arrays.copyOf(openSeq, n);
+                openStart = Arrays.copyOf(openStart, n);
+                openEnd = Arrays.copyOf(openEnd, n);
+                Arrays.fill(openSeq, old, n, -1);
+                cores = n;
+            }
+            if (openSeq[c] == seq && openEnd[c] == from) {
+                openEnd[c] = to;
+                return;
+            }
+            if (openSeq[c] != -1)
+                emit(c, openSeq[c], openStart[c], openEnd[c]);
+            openSeq[c] = seq;
+            openStart[c] = from;
+            openEnd[c] = to;
+        }
+
+        private void emit(int c, int seq, long from, long to) {
+            core[buffered] = c;
+            pid[buffered] = pids == null ? seq + 1 : pids[seq];
+            start[buffered] = from;
+            end[buffered] = to;
+            segments++;
+            if (++buffered == BLOCK) {
+                try {
+                    flushBlock();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (buffered == 0)
+                return;
+            long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+            for (int i = 0; i < buffered; i++) {
+                min = Math.min(min, start[i]);
+                max = Math.max(max, end[i]);
+            }
+            if (blocks == indexOffset.length) {
+                int n = blocks * 2;
+                indexOffset = Arrays.copyOf(indexOffset, n);
+                indexCount = Arrays.copyOf(indexCount, n);
+                indexMin = Arrays.copyOf(indexMin, n);
+                indexMax = Arrays.copyOf(indexMax, n);
+            }
+            indexOffset[blocks] = position;
+            indexCount[blocks] = buffered;
+            indexMin[blocks] = min;
+            indexMax[blocks] = max;
+            blocks++;
+
+            buf.putInt(buffered);
+            buf.asIntBuffer().put(core, 0, buffered).put(pid, 0, buffered);
+            buf.position(buf.position() + 8 * buffered);
+            buf.asLongBuffer().put(start, 0, buffered).put(end, 0, buffered);
+            buf.position(buf.position() + 16 * buffered);
+            buffered = 0;
+            drain();
+        }
+
+        private void drain() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                position += ch.write(buf);
+            }
+            buf.clear();
+        }
+
+        public void close() throws IOException {
+            try {
+                for (int c = 0; c < openSeq.length; c++) {
+                    if (openSeq[c] != -1)
+                        emit(c, openSeq[c], openStart[c], openEnd[c]);
+                    openSeq[c] = -1;
+                }
+                flushBlock();
+
+                long index = position;
+                for (int b = 0; b < blocks; b++) {
+                    if (buf.remaining() < INDEX_ENTRY)
+                        drain();
+                    buf.putLong(indexOffset[b]).putInt(indexCount[b]).putLong(indexMin[b]).putLong(indexMax[b]);
+                }
+                if (buf.remaining() < TRAILER)
+                    drain();
+                buf.putLong(index).putInt(blocks).putInt(cores).putLong(segments).putInt(MAGIC);
+                drain();
+            } finally {
+                ch.close();
+            }
+        }
+    }
+
+    static class Segments implements Closeable {
+        private final FileChannel ch;
+        final int blocks, cores;
+        final long segments;
+        private final long[] offset;
+        private final int[] count;
+        private final long[] min, max;
+        private final ByteBuffer block = ByteBuffer.allocate(4 + BLOCK * SEGMENT);
+        private final int[] ids = new int[BLOCK * 2];
+        private final long[] times = new long[BLOCK * 2];
+
+        Segments(String path) throws IOException {
+            ch = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+            try {
+                ByteBuffer head = ByteBuffer.allocate(8);
+                readFully(head, 0);
+                if (ch.size() < 8 + TRAILER || head.getInt() != MAGIC || head.getInt() != VERSION)
+                    throw new IOException(path + ": not a Gantt trace");
+
+                ByteBuffer trailer = ByteBuffer.allocate(TRAILER);
+                readFully(trailer, ch.size() - TRAILER);
+                long index = trailer.getLong();
+                blocks = trailer.getInt();
+                cores = trailer.getInt();
+                segments = trailer.getLong();
+                if (trailer.getInt() != MAGIC || index + (long) blocks * INDEX_ENTRY != ch.size() - TRAILER)
+                    throw new IOException(path + ": truncated Gantt trace");
+
+                offset = new long[blocks];
+                count = new int[blocks];
+                min = new long[blocks];
+                max = new long[blocks];
+                ByteBuffer entries = ByteBuffer.allocate(blocks * INDEX_ENTRY);
+                readFully(entries, index);
+                for (int b = 0; b < blocks; b++) {
+                    offset[b] = entries.getLong();
+                    count[b] = entries.getInt();
+                    min[b] = entries.getLong();
+                    max[b] = entries.getLong();
+                }
+            } catch (IOException e) {
+                ch.close();
+                throw e;
+            }
+        }
+
+        long firstTime() {
+            long t = Long.MAX_VALUE;
+            for (long m : min) {
+                t = Math.min(t, m);
+            }
+            return blocks == 0 ? 0 : t;
+        }
+
+        long lastTime() {
+            long t = Long.MIN_VALUE;
+            for (long m : max) {
+                t = Math.max(t, m);
+            }
+            return blocks == 0 ? 0 : t;
+        }
+
+        // Visits every segment overlapping [from, to), in file order.
+        void scan(long from, long to, Visitor visitor) throws IOException {
+            for (int b = 0; b < blocks; b++) {
+                if (max[b] <= from || min[b] >= to)
+                    continue;
+                int n = count[b];
+                block.clear().limit(4 + SEGMENT * n);
+                readFully(block, offset[b]);
+                if (block.getInt() != n)
+                    throw new IOException("corrupt Gantt block " + b);
+                block.asIntBuffer().get(ids, 0, 2 * n);
+                block.position(4 + 8 * n);
+                block.asLongBuffer().get(times, 0, 2 * n);
+                for (int i = 0; i < n; i++) {
+                    long s = times[i], e = times[n + i];
+                    if (e > from && s < to)
+                        visitor.segment(ids[i], ids[n + i], s, e);
+                }
+            }
+        }
+
+        private void readFully(ByteBuffer dst, long at) throws IOException {
+            while (dst.hasRemaining()) {
+                int r = ch.read(dst, at);
+                if (r < 0)
+                    throw new EOFException();
+                at += r;
+            }
+            dst.flip();
+        }
+
+        public void close() throws IOException {
+            ch.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package SchedulingSimulator;
+
+import java.io.*;
+import java.util.*;
+
+/*
+ * Renders one time window of a GanttTrace: a bar per core scaled to the given
+ * width, then the segments themselves. Only the blocks that overlap the window
+ * are read, so looking at a few hundred time units of a multi-gigabyte trace is
+ * as quick as looking at a small one.
+ *
+ * In the bars each column shows the process that held the core at the start of
+ * that column, as the last character of its pid in base 36, or '.' when idle.
+ */
+class GanttViewer {
+
+    static final String USAGE = "Usage: SchedulingSimulator --view <gantt-file> [from] [to] [--width n] [--limit n]";
+
+    static void cli(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println(USAGE);
+            return;
+        }
+        try (GanttTrace.Segments trace = new GanttTrace.Segments(args[1])) {
+            long from = trace.firstTime(), to = trace.lastTime();
+            int width = 100, limit = 50;
+            try {
+                int positional = 0;
+                for (int i = 2; i < args.length; i++) {
+                    if (args[i].equals("--width") && i + 1 < args.length)
+                        width = Integer.parseInt(args[++i]);
+                    else if (args[i].equals("--limit") && i + 1 < args.length)
+                        limit = Integer.parseInt(args[++i]);
+                    else if (positional++ == 0)
+                        from = Long.parseLong(args[i]);
+                    else
+                        to = Long.parseLong(args[i]);
+                }
+                if (width <= 0 || limit < 0 || to <= from)
+                    throw new IllegalArgumentException();
+            } catch (IllegalArgumentException e) {
+                System.out.println(USAGE);
+                return;
+            }
+            render(trace, from, to, width, limit);
+        }
+    }
+
+    static void render(GanttTrace.Segments trace, long from, long to, int width, int limit) throws IOException {
+        int columns = (int) Math.min(width, to - from);
+        double unit = (double) (to - from) / columns;
+        char[][] bars = new char[Math.max(trace.cores, 1)][columns];
+        for (char[] bar : bars) {
+            Arrays.fill(bar, '.');
+        }
+        List<String> listed = new ArrayList<>();
+        long[] total = { 0 };
+
+        trace.scan(from, to, (core, pid, start, end) -> {
+            // Columns whose start time falls inside [start, end).
+            int first = (int) Math.max(0, Math.ceil((start - from) / unit));
+            int last = (int) Math.min(columns - 1, Math.ceil((end - from) / unit) - 1);
+            char label = Character.forDigit(pid % 36, 36);
+            for (int col = first; col <= last; col++) {
+                bars[core][col] = label;
+            }
+            if (listed.size() < limit)
+                listed.add(String.format("  Core %-3d P%-8d [%d, %d)", core, pid, start, end));
+            total[0]++;
+        });
+
+        System.out.printf("Gantt %d..%d (%d segments in file, %.2f time units per column)\n", from, to,
+                trace.segments, unit);
+        for (int c = 0; c < bars.length; c++) {
+            System.out.printf("Core %-3d |%s|\n", c, new String(bars[c]));
+        }
+        System.out.println("Segments in window: " + total[0]);
+        for (String line : listed) {
+            System.out.println(line);
+        }
+        if (total[0] > listed.size())
+            System.out.println("  ... " + (total[0] - listed.size()) + " more");
+    }
+}
@@ -0,0 +1,43 @@
+package SchedulingSimulator;
+
+/*
+ * FIFO of ints on a power-of-two ring buffer.
+ */
+class IntRing {
+    private int[] items;
+    private int head = 0, size = 0;
+
+    IntRing(int capacity) {
+        items = new int[Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1)];
+    }
+
+    void add(int value) {
+        if (size == items.length)
+            grow();
+        items[(head + size++) & (items.length - 1)] = value;
+    }
+
+    int poll() {
+        int value = items[head];
+        head = (head + 1) & (items.length - 1);
+        size--;
+        return value;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        int[] bigger = new int[items.length * 2];
+        for (int i = 0; i < size; i++) {
+            bigger[i] = items[(head + i) & (items.length - 1)];
+        }
+        items = bigger;
+        head = 0;
+    }
+}
@@ -0,0 +1,214 @@
+package SchedulingSimulator;
+
+import java.util.*;
+
+/*
+ * Single-CPU engine for processes that alternate CPU and I/O bursts
+ * (IoWorkload). When a process finishes a CPU burst that is not its last, it
+ * leaves the policy and blocks on a device: each device serves its queue first
+ * come first served, one request at a time, for the request's service time. When
+ * the request completes the process is admitted back into the policy with its
+ * next CPU burst as remaining time, just like a new arrival: it can preempt, and
+ * MLFQ puts it back on the top level. Devices work while the CPU runs something
+ * else, which is the overlap that keeps the CPU busy under an I/O-bound mix.
+ *
+ * Request i of a process goes to device (seq + i) % devices. The clock jumps to
+ * the next arrival, slice end or request completion, each found with an O(1 +
+ * devices) scan. Under a policy that arrivals do not preempt, a new process
+ * waits for the running slice to end before it is admitted, as in EventEngine,
+ * so with no I/O bursts the schedule is the same as EventEngine's, slot numbers
+ * and lottery draws included.
+ *
+ * Completions report burst as the process's total CPU time, so waiting time in
+ * the summary is everything that was not CPU, including time blocked on I/O.
+ */
+class IoEngine extends EventEngine {
+
+    static class IoStats {
+        long cpuBusy = 0;
+        final long[] deviceBusy;
+        long requests = 0;
+        long queueWait = 0; // time requests spent waiting for a busy device
+        long decisions = 0;
+        long contextSwitches = 0;
+        long firstArrival = Long.MAX_VALUE;
+        long lastCompletion = 0;
+
+        IoStats(int devices) {
+            deviceBusy = new long[devices];
+        }
+
+        long makespan() {
+            return lastCompletion > firstArrival ? lastCompletion - firstArrival : 0;
+        }
+
+        void print() {
+            long makespan = makespan();
+            System.out.printf("%-22s %.2f%%\n", "CPU Busy", makespan == 0 ? 0 : 100.0 * cpuBusy / makespan);
+            for (int d = 0; d < deviceBusy.length; d++) {
+                System.out.printf("  Device %-14d %.2f%%\n", d, makespan == 0 ? 0 : 100.0 * deviceBusy[d] / makespan);
+            }
+            System.out.printf("%-22s %d\n", "I/O Requests", requests);
+            System.out.printf("%-22s %.3f\n", "Avg Device Queue Wait", requests == 0 ? 0 : (double) queueWait / requests);
+        }
+    }
+
+    private final IoWorkload workload;
+    private final IntRing[] deviceQueue;
+    private final int[] deviceSlot;
+    private final long[] deviceEnd;
+    private int[] row = new int[64], phase = new int[64];
+    private long[] blockedAt = new long[64];
+    private int running = -1;
+    private long sliceStart, sliceEnd;
+    private int lastSeq = -1;
+    final IoStats stats;
+
+    IoEngine(IoWorkload workload, CompletionSink sink, int devices) {
+        super(workload, sink);
+        this.workload = workload;
+        deviceQueue = new IntRing[devices];
+        for (int d = 0; d < devices; d++) {
+            deviceQueue[d] = new IntRing(64);
+        }
+        deviceSlot = new int[devices];
+        Arrays.fill(deviceSlot, -1);
+        deviceEnd = new long[devices];
+        stats = new IoStats(devices);
+    }
+
+    static IoStats run(IoWorkload w, CompletionSink sink, SchedulingPolicy policy, int devices) {
+        w.sortByArrival();
+        w.reset();
+        IoEngine engine = new IoEngine(w, sink, devices);
+        engine.run(policy);
+        return engine.stats;
+    }
+
+    @Override
+    void run(SchedulingPolicy policy) {
+        policy.attach(this);
+        boolean preempts = policy.preemptsOnArrival();
+
+        while (true) {
+            // An arrival is only an event of its own when it can interrupt the
+            // running process; otherwise it waits for the slice to end, as in
+            // EventEngine, so it gets the same slot and ready-queue position.
+            long t = pending && (running == -1 || preempts) ? source.arrival() : Long.MAX_VALUE;
+            if (running != -1)
+                t = Math.min(t, sliceEnd);
+            for (int d = 0; d < deviceSlot.length; d++) {
+                if (deviceSlot[d] != -1)
+                    t = Math.min(t, deviceEnd[d]);
+            }
+            if (t == Long.MAX_VALUE) {
+                stats.decisions = decisions;
+                stats.contextSwitches = contextSwitches;
+                break;
+            }
+            time = t;
+
+            boolean requeue = false, readied = false;
+            if (running != -1 && sliceEnd == time)
+                requeue = stop(policy);
+
+            // Held-back arrivals from before now still go in ahead of the
+            // requests completing now.
+            if (!preempts)
+                readied |= admitArrivals(policy, time - 1);
+
+            for (int d = 0; d < deviceSlot.length; d++) {
+                if (deviceSlot[d] != -1 && deviceEnd[d] == time) {
+                    int p = deviceSlot[d];
+                    phase[p] += 2;
+                    remaining[p] = workload.phase(row[p], phase[p]);
+                    policy.admit(p);
+                    readied = true;
+                    deviceSlot[d] = -1;
+                    serve(d);
+                }
+            }
+
+            if (running == -1 || requeue || preempts)
+                readied |= admitArrivals(policy, time);
+
+            if (running != -1 && !requeue && readied && preempts)
+                requeue = stop(policy);
+            if (requeue) {
+                policy.requeue(running);
+                running = -1;
+            }
+
+            if (running == -1 && !policy.isEmpty()) {
+                int p = policy.pick(time);
+                if (start[p] == -1)
+                    start[p] = time;
+                lastSeq = dispatched(p, lastSeq);
+                running = p;
+                sliceStart = time;
+                sliceEnd = time + Math.min(remaining[p], policy.slice(p));
+            }
+        }
+    }
+
+    // Admits every process arriving up to the given time; true if there were any.
+    private boolean admitArrivals(SchedulingPolicy policy, long upTo) {
+        boolean any = false;
+        while (pending && source.arrival() <= upTo) {
+            int r = workload.row();
+            int slot = admit();
+            if (slot >= row.length) {
+                int n = Math.max(slot + 1, row.length * 2);
+                row = Arrays.copyOf(row, n);
+                phase = Arrays.copyOf(phase, n);
+                blockedAt = Arrays.copyOf(blockedAt, n);
+            }
+            row[slot] = r;
+            phase[slot] = 0;
+            stats.firstArrival = Math.min(stats.firstArrival, arrival[slot]);
+            policy.admit(slot);
+            any = true;
+        }
+        return any;
+    }
+
+    // Charges the running process; true if it still has CPU left in this burst.
+    private boolean stop(SchedulingPolicy policy) {
+        int p = running;
+        int ran = (int) (time - sliceStart); // at most one slice, itself an int
+        remaining[p] -= ran;
+        stats.cpuBusy += ran;
+        policy.ran(p, ran);
+        if (timeline != null)
+            timeline.segment(0, seq[p], sliceStart, time);
+        if (remaining[p] > 0)
+            return true;
+
+        policy.finished(p);
+        running = -1;
+        if (phase[p] + 1 == workload.phases(row[p])) {
+            burst[p] = (int) Math.min(Integer.MAX_VALUE, workload.cpuTime(row[p]));
+            finish(p);
+            stats.lastCompletion = Math.max(stats.lastCompletion, time);
+        } else {
+            int d = (seq[p] + phase[p] / 2) % deviceSlot.length;
+            blockedAt[p] = time;
+            stats.requests++;
+            deviceQueue[d].add(p);
+            if (deviceSlot[d] == -1)
+                serve(d);
+        }
+        return false;
+    }
+
+    private void serve(int d) {
+        if (deviceQueue[d].isEmpty())
+            return;
+        int p = deviceQueue[d].poll();
+        int service = workload.phase(row[p], phase[p] + 1);
+        stats.queueWait += time - blockedAt[p];
+        stats.deviceBusy[d] += service;
+        deviceSlot[d] = p;
+        deviceEnd[d] = time + service;
+    }
+}
@@ -0,0 +1,235 @@
+package SchedulingSimulator;
+
+import java.io.*;
+import java.util.*;
+
+/*
+ * Workload whose processes alternate CPU and I/O: burst i of a process is CPU
+ * time when i is even and device time when i is odd, and the list starts and
+ * ends with CPU, so a process with k I/O requests has 2k + 1 bursts. The bursts
+ * of all processes share one flat array indexed by offset[row] (compressed
+ * rows), so a million processes cost a handful of int arrays.
+ *
+ * As an ArrivalSource it hands the engine each process with its first CPU burst;
+ * row() says which row the cursor is on so IoEngine can find the rest.
+ *
+ * Text format: one process per line as "arrival priority cpu [io cpu]...".
+ * Blank lines and text after '#' are ignored. PIDs are assigned in file order.
+ */
+class IoWorkload implements ArrivalSource {
+    int size = 0;
+    int[] pid = new int[64], arrival = new int[64], priority = new int[64];
+    int[] offset = new int[65];
+    int[] bursts = new int[256];
+    private int cursor = -1;
+
+    // I/O-bound share of the generated mix and the shape of its bursts.
+    static final String OPTIONS = "[--io-share p] [--io-rounds k] [--io-cpu mean] [--io-time mean]";
+
+    int add(int pid, int arrival, int priority, int[] phases, int count) {
+        if (count % 2 == 0)
+            throw new IllegalArgumentException("Bursts must alternate cpu/io and end with cpu");
+        for (int i = 0; i < count; i++) {
+            if (phases[i] <= 0)
+                throw new IllegalArgumentException("Bursts must be positive");
+        }
+        if (size == this.pid.length) {
+            int n = size * 2;
+            this.pid = Arrays.copyOf(this.pid, n);
+            this.arrival = Arrays.copyOf(this.arrival, n);
+            this.priority = Arrays.copyOf(this.priority, n);
+            offset = Arrays.copyOf(offset, n + 1);
+        }
+        int at = offset[size];
+        if (at + count > bursts.length)
+            bursts = Arrays.copyOf(bursts, Math.max(at + count, bursts.length * 2));
+        System.arraycopy(phases, 0, bursts, at, count);
+        int row = size++;
+        this.pid[row] = pid;
+        this.arrival[row] = arrival;
+        this.priority[row] = priority;
+        offset[size] = at + count;
+        return row;
+    }
+
+    int phases(int row) {
+        return offset[row + 1] - offset[row];
+    }
+
+    int phase(int row, int i) {
+        return bursts[offset[row] + i];
+    }
+
+    long cpuTime(int row) {
+        long total = 0;
+        for (int i = offset[row]; i < offset[row + 1]; i += 2) {
+            total += bursts[i];
+        }
+        return total;
+    }
+
+    // Stable sort of the rows by arrival time, rebuilding the burst array in the new order.
+    void sortByArrival() {
+        boolean sorted = true;
+        for (int i = 1; i < size && sorted; i++) {
+            sorted = arrival[i - 1] <= arrival[i];
+        }
+        if (sorted)
+            return;
+
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) arrival[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] newPid = new int[pid.length], newArrival = new int[pid.length], newPriority = new int[pid.length];
+        int[] newOffset = new int[offset.length], newBursts = new int[bursts.length];
+        for (int i = 0; i < size; i++) {
+            int row = (int) keys[i];
+            newPid[i] = pid[row];
+            newArrival[i] = arrival[row];
+            newPriority[i] = priority[row];
+            int n = phases(row);
+            System.arraycopy(bursts, offset[row], newBursts, newOffset[i], n);
+            newOffset[i + 1] = newOffset[i] + n;
+        }
+        pid = newPid;
+        arrival = newArrival;
+        priority = newPriority;
+        offset = newOffset;
+        bursts = newBursts;
+    }
+
+    void reset() {
+        cursor = -1;
+    }
+
+    public boolean next() {
+        return ++cursor < size;
+    }
+
+    int row() {
+        return cursor;
+    }
+
+    public int arrival() {
+        return arrival[cursor];
+    }
+
+    public int burst() {
+        return bursts[offset[cursor]];
+    }
+
+    public int priority() {
+        return priority[cursor];
+    }
+
+    static IoWorkload read(String path) throws IOException {
+        IoWorkload w = new IoWorkload();
+        try (Reader in = new BufferedReader(new FileReader(path), 1 << 16)) {
+            StreamTokenizer tok = new StreamTokenizer(in);
+            tok.resetSyntax();
+            tok.wordChars('0', '9');
+            tok.wordChars('-', '-');
+            tok.whitespaceChars(0, ' ');
+            tok.commentChar('#');
+            tok.eolIsSignificant(true);
+
+            int[] fields = new int[16];
+            int count = 0, line = 1;
+            while (true) {
+                int token = tok.nextToken();
+                if (token == StreamTokenizer.TT_EOL || token == StreamTokenizer.TT_EOF) {
+                    if (count > 0) {
+                        if (count < 3 || count % 2 == 0)
+                            throw new IOException(path + ":" + line + ": expected \"arrival priority cpu [io cpu]...\"");
+                        try {
+                            w.add(w.size + 1, fields[0], fields[1], Arrays.copyOfRange(fields, 2, count), count - 2);
+                        } catch (IllegalArgumentException e) {
+                            throw new IOException(path + ":" + line + ": " + e.getMessage());
+                        }
+                    }
+                    if (token == StreamTokenizer.TT_EOF)
+                        break;
+                    count = 0;
+                    line++;
+                } else if (token == StreamTokenizer.TT_WORD) {
+                    if (count == fields.length)
+                        fields = Arrays.copyOf(fields, count * 2);
+                    try {
+                        fields[count++] = Integer.parseInt(tok.sval);
+                    } catch (NumberFormatException e) {
+                        throw new IOException(path + ":" + line + ": not a number: " + tok.sval);
+                    }
+                } else {
+                    throw new IOException(path + ":" + line + ": unexpected token");
+                }
+            }
+        }
+        w.sortByArrival();
+        return w;
+    }
+
+    static class Mix {
+        double ioShare = 0.5;   // fraction of processes that are I/O-bound
+        int ioRounds = 4;       // mean I/O requests of an I/O-bound process
+        double ioCpuMean = 2;   // mean CPU burst between its requests
+        double ioTimeMean = 10; // mean device service time
+
+        // Applies one command-line option; false if the flag is not a mix option.
+        boolean option(String flag, String value) {
+            switch (flag) {
+                case "--io-share":
+                    ioShare = Double.parseDouble(value);
+                    if (ioShare < 0 || ioShare > 1)
+                        throw new IllegalArgumentException("io-share");
+                    return true;
+                case "--io-rounds":
+                    ioRounds = Integer.parseInt(value);
+                    if (ioRounds <= 0)
+                        throw new IllegalArgumentException("io-rounds");
+                    return true;
+                case "--io-cpu":
+                    ioCpuMean = Double.parseDouble(value);
+                    if (!(ioCpuMean > 0))
+                        throw new IllegalArgumentException("io-cpu");
+                    return true;
+                case "--io-time":
+                    ioTimeMean = Double.parseDouble(value);
+                    if (!(ioTimeMean > 0))
+                        throw new IllegalArgumentException("io-time");
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    // Arrivals, priorities and CPU-bound bursts come from the generator; an
+    // ioShare of the processes instead get 1..2*ioRounds requests with short
+    // exponential CPU bursts between exponential device times.
+    static IoWorkload generate(WorkloadGenerator generator, Mix mix) {
+        IoWorkload w = new IoWorkload();
+        SplittableRandom random = new SplittableRandom(generator.seed ^ 0x5DEECE66DL);
+        int[] phases = new int[4 * mix.ioRounds + 1];
+        generator.reset();
+        while (generator.next()) {
+            if (random.nextDouble() >= mix.ioShare) {
+                phases[0] = generator.burst();
+                w.add(w.size + 1, generator.arrival(), generator.priority(), phases, 1);
+                continue;
+            }
+            int rounds = 1 + random.nextInt(2 * mix.ioRounds);
+            for (int i = 0; i <= 2 * rounds; i++) {
+                phases[i] = exponential(random, i % 2 == 0 ? mix.ioCpuMean : mix.ioTimeMean);
+            }
+            w.add(w.size + 1, generator.arrival(), generator.priority(), phases, 2 * rounds + 1);
+        }
+        return w;
+    }
+
+    private static int exponential(SplittableRandom random, double mean) {
+        return (int) Math.max(1, Math.min(Math.round(-mean * Math.log(1 - random.nextDouble())), Integer.MAX_VALUE / 4));
+    }
+}
@@ -0,0 +1,73 @@
+package SchedulingSimulator;
+
+/*
+ * Fixed-size log-linear histogram of non-negative times, in the style of
+ * HdrHistogram. Values below 256 get a bucket each; above that every power of
+ * two is split into 128 equal sub-buckets, so any reported percentile is within
+ * 1/128 (under 1%) of the true value over the whole long range.
+ *
+ * All counts live in one long[] sized up front, so record() is a couple of bit
+ * operations and an increment with no allocation, and a histogram costs the
+ * same ~58 KB whether it has seen ten values or ten billion. The mean, min and
+ * max are exact.
+ */
+class LatencyHistogram {
+    private static final int SUB_BITS = 7;
+    private static final int HALF = 1 << SUB_BITS; // sub-buckets per power of two
+    private static final int LINEAR = HALF << 1; // values below this are exact
+    private static final int BUCKETS = LINEAR + (63 - SUB_BITS) * HALF;
+
+    private final long[] counts = new long[BUCKETS];
+    long count = 0;
+    long sum = 0;
+    long min = Long.MAX_VALUE;
+    long max = 0;
+
+    void record(long value) {
+        if (value < 0)
+            throw new IllegalArgumentException("negative time: " + value);
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        if (value < min)
+            min = value;
+        if (value > max)
+            max = value;
+    }
+
+    double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    // Smallest recorded value (to within the bucket width) that at least
+    // percentile% of the recorded values do not exceed.
+    long percentile(double percentile) {
+        if (count == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min(max, Math.max(min, highest(i)));
+        }
+        return max;
+    }
+
+    private static int index(long value) {
+        if (value < LINEAR)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return LINEAR + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    // Largest value that lands in bucket i.
+    private static long highest(int i) {
+        if (i < LINEAR)
+            return i;
+        int shift = (i - LINEAR) / HALF + 1;
+        long mantissa = HALF + (i - LINEAR) % HALF;
+        long high = ((mantissa + 1) << shift) - 1;
+        return high < 0 ? Long.MAX_VALUE : high;
+    }
+}
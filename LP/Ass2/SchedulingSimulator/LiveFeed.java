@@ -0,0 +1,105 @@
+package SchedulingSimulator;
+
+import java.util.concurrent.*;
+
+/*
+ * ArrivalSource fed at run time: producer threads push jobs into a bounded
+ * concurrent queue while an engine thread pulls them. next() blocks until a job
+ * is there or the feed is closed, which is exactly what a discrete-event engine
+ * needs - it may not move its clock past t until it knows nothing arrives
+ * before t. A full queue blocks producers, so a slow engine pushes back on the
+ * feed instead of buffering without bound.
+ *
+ * Arrival times must not go backwards across the whole feed. submit() takes
+ * times from the caller and rejects one that is out of order; submitNow() stamps
+ * the job with the feed's own clock (wall time since the feed was created, in
+ * units of unitNanos), so any number of producers can use it.
+ */
+class LiveFeed implements ArrivalSource {
+
+    private static final class Job {
+        final int arrival, burst, priority;
+
+        Job(int arrival, int burst, int priority) {
+            this.arrival = arrival;
+            this.burst = burst;
+            this.priority = priority;
+        }
+    }
+
+    private static final Job END = new Job(0, 0, 0);
+
+    private final BlockingQueue<Job> queue;
+    private final long origin = System.nanoTime();
+    private final long unitNanos;
+    private int lastArrival = Integer.MIN_VALUE;
+    private boolean closed = false;
+    private volatile boolean aborted = false;
+    private Job current;
+
+    LiveFeed(int capacity, long unitNanos) {
+        queue = new ArrayBlockingQueue<>(capacity);
+        this.unitNanos = unitNanos;
+    }
+
+    synchronized void submit(int arrival, int burst, int priority) throws InterruptedException {
+        if (closed || aborted)
+            throw new IllegalStateException("feed is closed");
+        if (arrival < lastArrival)
+            throw new IllegalArgumentException("Arrival " + arrival + " after " + lastArrival);
+        if (burst <= 0)
+            throw new IllegalArgumentException("Burst must be positive: " + burst);
+        lastArrival = arrival;
+        queue.put(new Job(arrival, burst, priority));
+    }
+
+    synchronized int submitNow(int burst, int priority) throws InterruptedException {
+        int now = (int) Math.min(Integer.MAX_VALUE, (System.nanoTime() - origin) / unitNanos);
+        int arrival = Math.max(now, lastArrival);
+        submit(arrival, burst, priority);
+        return arrival;
+    }
+
+    // No more jobs; the engine drains what is queued and then finishes.
+    synchronized void close() throws InterruptedException {
+        if (!closed) {
+            closed = true;
+            queue.put(END);
+        }
+    }
+
+    // The consumer has gone away: empties the queue so a producer blocked on it
+    // wakes up, and makes every later submit fail.
+    void abort() {
+        aborted = true;
+        queue.clear();
+    }
+
+    int backlog() {
+        return queue.size();
+    }
+
+    public boolean next() {
+        if (current == END)
+            return false;
+        try {
+            current = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("interrupted while waiting for arrivals");
+        }
+        return current != END;
+    }
+
+    public int arrival() {
+        return current.arrival;
+    }
+
+    public int burst() {
+        return current.burst;
+    }
+
+    public int priority() {
+        return current.priority;
+    }
+}
@@ -0,0 +1,122 @@
+package SchedulingSimulator;
+
+import java.util.*;
+
+/*
+ * Lottery scheduling: each ready process holds tickets (more for a lower priority
+ * number) and every quantum goes to a uniformly drawn ticket. Ticket counts sit
+ * in a Fenwick tree, so drawing the winner and adding or removing a process are
+ * all O(log n). The draw is seeded, so runs are repeatable.
+ *
+ * Tree positions are handed out by the policy itself rather than taken from the
+ * engine's slot numbers, so the winner depends only on the order of admits,
+ * requeues and picks. MultiCoreEngine shares slots across cores and recycles
+ * them at different moments from EventEngine, but each core's policy sees the
+ * same calls, so a seed draws the same processes under either engine.
+ */
+class LotteryPolicy implements SchedulingPolicy {
+    private final int quantum;
+    private final SplittableRandom random;
+    private EventEngine e;
+    private long[] tree = new long[65]; // 1-based Fenwick tree over positions
+    private long[] weight = new long[64];
+    private int[] owner = new int[64]; // slot holding each position
+    private int[] free = new int[64];
+    private int freeCount = 0, used = 0;
+    private long total = 0;
+    private int count = 0;
+
+    LotteryPolicy(int quantum, long seed) {
+        this.quantum = quantum;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public String name() {
+        return "LOTTERY";
+    }
+
+    public void attach(EventEngine engine) {
+        e = engine;
+    }
+
+    public void admit(int slot) {
+        requeue(slot);
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int pick(long time) {
+        long ticket = random.nextLong(total);
+
+        // Descend the tree to the position whose cumulative range contains the ticket.
+        int pos = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int probe = pos + step;
+            if (probe < tree.length && tree[probe] <= ticket) {
+                pos = probe;
+                ticket -= tree[pos];
+            }
+        }
+        // The 1-based tree index pos + 1 is position pos.
+        update(pos, -weight[pos]);
+        weight[pos] = 0;
+        free[freeCount++] = pos;
+        count--;
+        return owner[pos];
+    }
+
+    public int slice(int slot) {
+        return quantum;
+    }
+
+    public boolean preemptsOnArrival() {
+        return false;
+    }
+
+    public void ran(int slot, int ran) {
+    }
+
+    public void requeue(int slot) {
+        int pos;
+        if (freeCount > 0) {
+            pos = free[--freeCount];
+        } else {
+            if (used == weight.length)
+                grow(used * 2);
+            pos = used++;
+        }
+        owner[pos] = slot;
+        weight[pos] = SchedulingPolicy.tickets(e.priority[slot]);
+        update(pos, weight[pos]);
+        count++;
+    }
+
+    public void finished(int slot) {
+    }
+
+    public int steal() {
+        return count == 0 ? -1 : pick(0);
+    }
+
+    private void update(int pos, long delta) {
+        total += delta;
+        for (int i = pos + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private void grow(int n) {
+        weight = Arrays.copyOf(weight, n);
+        owner = Arrays.copyOf(owner, n);
+        free = Arrays.copyOf(free, n);
+        tree = new long[n + 1];
+        for (int i = 1; i <= n; i++) {
+            tree[i] += weight[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= n)
+                tree[parent] += tree[i];
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package SchedulingSimulator;
+
+import java.util.*;
+
+/*
+ * Multilevel feedback queue. New arrivals enter level 0; a process that uses up
+ * its allotment at a level (quantum << level, counted across preemptions) drops
+ * one level. An arrival preempts the running process, which goes back to the
+ * front of its level so it keeps the CPU unless the arrival outranks it.
+ *
+ * Every boost interval all processes return to level 0. The levels are intrusive
+ * linked lists over the slots, so a boost splices them onto level 0 in O(levels)
+ * and bumps an epoch; a process whose epoch is stale is treated as freshly
+ * boosted the next time it is looked at. The boost takes effect at the first
+ * decision on or after the boundary. Every decision is O(levels).
+ */
+class MlfqPolicy implements SchedulingPolicy {
+    private final int[] quantum;
+    private final int boostInterval;
+    private final int[] head, tail;
+    private int[] next = new int[64], level = new int[64], used = new int[64], epoch = new int[64];
+    private int count = 0, currentEpoch = 0;
+    private long nextBoost;
+
+    MlfqPolicy(int levels, int baseQuantum, int boostInterval) {
+        quantum = new int[levels];
+        for (int i = 0; i < levels; i++) {
+            quantum[i] = (int) Math.min(Integer.MAX_VALUE, (long) baseQuantum << i);
+        }
+        this.boostInterval = boostInterval;
+        head = new int[levels];
+        tail = new int[levels];
+        Arrays.fill(head, -1);
+        Arrays.fill(tail, -1);
+        nextBoost = boostInterval > 0 ? boostInterval : Long.MAX_VALUE;
+    }
+
+    public String name() {
+        return "MLFQ";
+    }
+
+    public void attach(EventEngine engine) {
+    }
+
+    public void admit(int slot) {
+        if (slot >= next.length) {
+            int n = Math.max(slot + 1, next.length * 2);
+            next = Arrays.copyOf(next, n);
+            level = Arrays.copyOf(level, n);
+            used = Arrays.copyOf(used, n);
+            epoch = Arrays.copyOf(epoch, n);
+        }
+        level[slot] = 0;
+        used[slot] = 0;
+        epoch[slot] = currentEpoch;
+        pushBack(0, slot);
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int pick(long time) {
+        if (time >= nextBoost) {
+            boost();
+            nextBoost = (time / boostInterval + 1) * (long) boostInterval;
+        }
+        for (int l = 0; l < head.length; l++) {
+            if (head[l] != -1)
+                return popFront(l);
+        }
+        throw new IllegalStateException("pick on an empty queue");
+    }
+
+    public int slice(int slot) {
+        refresh(slot);
+        return quantum[level[slot]] - used[slot];
+    }
+
+    public boolean preemptsOnArrival() {
+        return true;
+    }
+
+    public void ran(int slot, int ran) {
+        used[slot] += ran;
+    }
+
+    public void requeue(int slot) {
+        refresh(slot);
+        int l = level[slot];
+        if (used[slot] >= quantum[l]) {
+            level[slot] = Math.min(l + 1, quantum.length - 1);
+            used[slot] = 0;
+            pushBack(level[slot], slot);
+        } else {
+            pushFront(l, slot);
+        }
+    }
+
+    public void finished(int slot) {
+    }
+
+    public int steal() {
+        for (int l = 0; l < head.length; l++) {
+            if (head[l] != -1)
+                return popFront(l);
+        }
+        return -1;
+    }
+
+    private void refresh(int slot) {
+        if (epoch[slot] != currentEpoch) {
+            epoch[slot] = currentEpoch;
+            level[slot] = 0;
+            used[slot] = 0;
+        }
+    }
+
+    private void boost() {
+        for (int l = 1; l < head.length; l++) {
+            if (head[l] == -1)
+                continue;
+            if (head[0] == -1)
+                head[0] = head[l];
+            else
+                next[tail[0]] = head[l];
+            tail[0] = tail[l];
+            head[l] = tail[l] = -1;
+        }
+        currentEpoch++;
+    }
+
+    private void pushBack(int l, int slot) {
+        next[slot] = -1;
+        if (head[l] == -1)
+            head[l] = slot;
+        else
+            next[tail[l]] = slot;
+        tail[l] = slot;
+        count++;
+    }
+
+    private void pushFront(int l, int slot) {
+        next[slot] = head[l];
+        head[l] = slot;
+        if (tail[l] == -1)
+            tail[l] = slot;
+        count++;
+    }
+
+    private int popFront(int l) {
+        int slot = head[l];
+        head[l] = next[slot];
+        if (head[l] == -1)
+            tail[l] = -1;
+        count--;
+        return slot;
+    }
+}
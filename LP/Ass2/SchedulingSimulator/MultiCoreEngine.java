@@ -0,0 +1,264 @@
+package SchedulingSimulator;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/*
+ * SMP version of EventEngine: k CPUs, each with its own run queue (its own
+ * SchedulingPolicy instance), sharing the arrival stream and the live-process
+ * slots.
+ *
+ * Arrivals are placed on a core either round robin or on the least loaded one.
+ * Unless affinity is strict, a core that runs out of work steals a ready process
+ * from the most loaded core; a process that runs on a different core from last
+ * time counts as a migration. The clock jumps to the next arrival or the
+ * earliest slice end across cores, so each event costs O(k) plus the policy's
+ * own work. With one core the results are the same as EventEngine.run.
+ *
+ * With round-robin placement and strict affinity the cores never interact, so
+ * runIndependent splits a ProcessTable per core and simulates the cores in
+ * parallel on a fork-join pool.
+ */
+class MultiCoreEngine extends EventEngine {
+
+    enum Placement {
+        ROUND_ROBIN,
+        LEAST_LOADED
+    }
+
+    static class CoreStats {
+        final long[] busy;
+        long migrations = 0;
+        long steals = 0;
+        long decisions = 0;
+        long contextSwitches = 0;
+        long firstArrival = Long.MAX_VALUE;
+        long lastCompletion = 0;
+
+        CoreStats(int cores) {
+            busy = new long[cores];
+        }
+
+        long makespan() {
+            return lastCompletion > firstArrival ? lastCompletion - firstArrival : 0;
+        }
+
+        void print() {
+            long makespan = makespan();
+            System.out.printf("%-22s %d\n", "Cores", busy.length);
+            for (int c = 0; c < busy.length; c++) {
+                System.out.printf("  Core %-16d %.2f%%\n", c, makespan == 0 ? 0 : 100.0 * busy[c] / makespan);
+            }
+            System.out.printf("%-22s %d\n", "Steals", steals);
+            System.out.printf("%-22s %d\n", "Migrations", migrations);
+            System.out.printf("%-22s %d\n", "SMP Makespan", makespan);
+        }
+    }
+
+    private final int cores;
+    private final Placement placement;
+    private final boolean stealing;
+    private final SchedulingPolicy[] policies;
+    private final int[] current, queued, lastSeq;
+    private final long[] sliceStart, sliceEnd;
+    private final boolean[] requeue;
+    private int[] lastCore = new int[64];
+    private int nextCore = 0;
+    final CoreStats stats;
+
+    MultiCoreEngine(ArrivalSource source, CompletionSink sink, int cores, Supplier<SchedulingPolicy> policy,
+            Placement placement, boolean strictAffinity) {
+        super(source, sink);
+        this.cores = cores;
+        this.placement = placement;
+        this.stealing = !strictAffinity;
+        policies = new SchedulingPolicy[cores];
+        for (int c = 0; c < cores; c++) {
+            policies[c] = policy.get();
+            policies[c].attach(this);
+        }
+        current = new int[cores];
+        Arrays.fill(current, -1);
+        sliceStart = new long[cores];
+        sliceEnd = new long[cores];
+        queued = new int[cores];
+        lastSeq = new int[cores];
+        Arrays.fill(lastSeq, -1);
+        requeue = new boolean[cores];
+        stats = new CoreStats(cores);
+    }
+
+    static CoreStats run(ProcessTable t, int cores, Supplier<SchedulingPolicy> policy, Placement placement,
+            boolean strictAffinity, TimelineSink timeline) {
+        t.sortByArrival();
+        t.reset();
+        MultiCoreEngine engine = new MultiCoreEngine(t.rows(), t, cores, policy, placement, strictAffinity);
+        engine.timeline = timeline;
+        engine.run();
+        return engine.stats;
+    }
+
+    void run() {
+        while (true) {
+            // Next event: an arrival or the earliest slice end.
+            long t = pending ? source.arrival() : Long.MAX_VALUE;
+            for (int c = 0; c < cores; c++) {
+                if (current[c] != -1)
+                    t = Math.min(t, sliceEnd[c]);
+            }
+            if (t == Long.MAX_VALUE) {
+                stats.decisions = decisions;
+                stats.contextSwitches = contextSwitches;
+                break;
+            }
+            time = t;
+
+            // Slices ending now: the process either finishes or waits for requeue
+            // until this instant's arrivals are in, as on a single CPU.
+            for (int c = 0; c < cores; c++) {
+                if (current[c] != -1 && sliceEnd[c] == time)
+                    stop(c);
+            }
+
+            while (pending && source.arrival() <= time) {
+                int slot = admit();
+                int c = place();
+                if (slot >= lastCore.length)
+                    lastCore = Arrays.copyOf(lastCore, Math.max(slot + 1, lastCore.length * 2));
+                lastCore[slot] = -1;
+                stats.firstArrival = Math.min(stats.firstArrival, arrival[slot]);
+                policies[c].admit(slot);
+                queued[c]++;
+                if (current[c] != -1 && !requeue[c] && policies[c].preemptsOnArrival())
+                    stop(c);
+            }
+
+            for (int c = 0; c < cores; c++) {
+                if (requeue[c]) {
+                    policies[c].requeue(current[c]);
+                    queued[c]++;
+                    requeue[c] = false;
+                    current[c] = -1;
+                }
+            }
+
+            for (int c = 0; c < cores; c++) {
+                if (current[c] == -1)
+                    dispatch(c);
+            }
+        }
+    }
+
+    // Charges the running process for the time it has had and takes it off the core.
+    private void stop(int c) {
+        int p = current[c];
+        int ran = (int) (time - sliceStart[c]); // at most one slice, itself an int
+        remaining[p] -= ran;
+        stats.busy[c] += ran;
+        policies[c].ran(p, ran);
+        if (timeline != null && ran > 0)
+            timeline.segment(c, seq[p], sliceStart[c], time);
+        if (remaining[p] == 0) {
+            policies[c].finished(p);
+            finish(p);
+            stats.lastCompletion = Math.max(stats.lastCompletion, time);
+            current[c] = -1;
+        } else {
+            requeue[c] = true;
+        }
+    }
+
+    private void dispatch(int c) {
+        if (queued[c] == 0 && stealing) {
+            int victim = -1;
+            for (int v = 0; v < cores; v++) {
+                if (v != c && queued[v] > 0 && (victim == -1 || queued[v] > queued[victim]))
+                    victim = v;
+            }
+            if (victim != -1) {
+                int slot = policies[victim].steal();
+                if (slot != -1) {
+                    queued[victim]--;
+                    policies[c].admit(slot);
+                    queued[c]++;
+                    stats.steals++;
+                }
+            }
+        }
+        if (queued[c] == 0)
+            return;
+
+        int p = policies[c].pick(time);
+        queued[c]--;
+        if (lastCore[p] != -1 && lastCore[p] != c)
+            stats.migrations++;
+        lastCore[p] = c;
+        if (start[p] == -1)
+            start[p] = time;
+        lastSeq[c] = dispatched(p, lastSeq[c]);
+
+        current[c] = p;
+        sliceStart[c] = time;
+        sliceEnd[c] = time + Math.min(remaining[p], policies[c].slice(p));
+    }
+
+    private int place() {
+        if (placement == Placement.ROUND_ROBIN) {
+            int c = nextCore;
+            nextCore = (nextCore + 1) % cores;
+            return c;
+        }
+        int best = 0;
+        for (int c = 1; c < cores; c++) {
+            if (load(c) < load(best))
+                best = c;
+        }
+        return best;
+    }
+
+    private int load(int c) {
+        return queued[c] + (current[c] != -1 ? 1 : 0);
+    }
+
+    // Round-robin placement with strict affinity: row i belongs to core i % k and
+    // the cores are simulated side by side, each on its own slice of the table.
+    static CoreStats runIndependent(ProcessTable t, int cores, Supplier<SchedulingPolicy> policy, int threads)
+            throws InterruptedException, ExecutionException {
+        t.sortByArrival();
+        t.reset();
+
+        ProcessTable[] parts = new ProcessTable[cores];
+        for (int c = 0; c < cores; c++) {
+            parts[c] = new ProcessTable(t.size / cores + 1);
+        }
+        for (int i = 0; i < t.size; i++) {
+            parts[i % cores].add(t.pid[i], t.arrival[i], t.burst[i], t.priority[i]);
+        }
+
+        List<Callable<EventEngine>> tasks = new ArrayList<>();
+        for (ProcessTable part : parts) {
+            tasks.add(() -> EventEngine.run(part, policy.get()));
+        }
+        CoreStats stats = new CoreStats(cores);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (Future<EventEngine> done : pool.invokeAll(tasks)) {
+                stats.decisions += done.get().decisions;
+                stats.contextSwitches += done.get().contextSwitches;
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int i = 0; i < t.size; i++) {
+            ProcessTable part = parts[i % cores];
+            int row = i / cores;
+            t.completed(i, t.arrival[i], t.burst[i], t.priority[i], part.start[row], part.completion[row]);
+            stats.busy[i % cores] += t.burst[i];
+            stats.firstArrival = Math.min(stats.firstArrival, t.arrival[i]);
+            stats.lastCompletion = Math.max(stats.lastCompletion, t.completion[i]);
+        }
+        return stats;
+    }
+}
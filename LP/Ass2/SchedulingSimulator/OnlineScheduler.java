@@ -0,0 +1,149 @@
+package SchedulingSimulator;
+
+import java.io.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+
+/*
+ * Incremental mode: an EventEngine running on its own thread, fed by a LiveFeed
+ * that other threads push arrivals into while it runs, and publishing every
+ * completion through a CompletionPublisher. Nothing is sorted or loaded up
+ * front; the engine simply waits whenever it needs an arrival that has not
+ * been pushed yet, and finishes once the feed is closed and drained.
+ *
+ * The --online command replays a generator or trace as a live feed (optionally
+ * paced with --rate) and reports scheduling decisions per second of wall time
+ * under that load, next to the usual summary built from the completion stream.
+ */
+class OnlineScheduler {
+    final LiveFeed feed;
+    final CompletionPublisher completions = new CompletionPublisher();
+    private final FutureTask<EventEngine> engine;
+    private volatile long elapsedNanos;
+
+    OnlineScheduler(LiveFeed feed, SchedulingPolicy policy) {
+        this.feed = feed;
+        engine = new FutureTask<>(() -> {
+            long begin = System.nanoTime();
+            try {
+                EventEngine e = new EventEngine(feed, completions);
+                e.run(policy);
+                return e;
+            } catch (RuntimeException | Error e) {
+                feed.abort();
+                throw e;
+            } finally {
+                elapsedNanos = System.nanoTime() - begin;
+                completions.close();
+            }
+        });
+    }
+
+    void start() {
+        Thread t = new Thread(engine, "online-scheduler");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    // Waits until the feed has been closed and everything in it has completed.
+    EventEngine await() throws InterruptedException, ExecutionException {
+        return engine.get();
+    }
+
+    long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    static final String USAGE = "Usage: SchedulingSimulator --online <fcfs|priority|rr|srtf|mlfq|lottery|stride>"
+            + " <trace-file|gen:n> [quantum] [--rate jobs/s] [--capacity n] " + BatchRunner.Options.USAGE + " "
+            + WorkloadGenerator.OPTIONS;
+
+    static void cli(String[] args) throws IOException, InterruptedException {
+        if (args.length < 3) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        BatchRunner.Algorithm algorithm;
+        WorkloadGenerator generator = null;
+        int quantum = 2, capacity = 1 << 16;
+        double rate = 0;
+        BatchRunner.Options policyOptions = new BatchRunner.Options();
+        try {
+            algorithm = BatchRunner.Algorithm.valueOf(args[1].toUpperCase());
+            if (args[2].startsWith("gen:"))
+                generator = new WorkloadGenerator(Integer.parseInt(args[2].substring(4)));
+            WorkloadGenerator options = generator != null ? generator : new WorkloadGenerator(0);
+            for (int i = 3; i < args.length; i++) {
+                if (args[i].equals("--rate") && i + 1 < args.length)
+                    rate = Double.parseDouble(args[++i]);
+                else if (args[i].equals("--capacity") && i + 1 < args.length)
+                    capacity = Integer.parseInt(args[++i]);
+                else if (i + 1 < args.length && policyOptions.option(args[i], args[i + 1]))
+                    i++;
+                else if (i + 1 < args.length && options.option(args[i], args[i + 1]))
+                    i++;
+                else
+                    quantum = Integer.parseInt(args[i]);
+            }
+            if (quantum <= 0 || capacity <= 0 || rate < 0)
+                throw new IllegalArgumentException();
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        try (TraceFile.Replay trace = generator == null ? TraceFile.open(args[2]) : null) {
+            ArrivalSource source = generator != null ? generator : trace;
+            SchedulingPolicy policy = algorithm.create(quantum, policyOptions);
+            OnlineScheduler scheduler = new OnlineScheduler(new LiveFeed(capacity, 1), policy);
+            ScheduleResult result = new ScheduleResult(policy.name());
+            CompletableFuture<Void> consumed = scheduler.completions.forward(result);
+            scheduler.start();
+
+            long pushed;
+            EventEngine engine;
+            try {
+                pushed = produce(source, scheduler.feed, rate);
+                engine = scheduler.await();
+                consumed.get();
+            } catch (IllegalStateException e) {
+                // The feed was aborted under the producer; await reports why.
+                try {
+                    scheduler.await();
+                } catch (ExecutionException failure) {
+                    throw new IOException("online run failed", failure.getCause());
+                }
+                throw e;
+            } catch (ExecutionException e) {
+                throw new IOException("online run failed", e.getCause());
+            }
+            result.engineCounts(engine.decisions, engine.contextSwitches);
+
+            double seconds = scheduler.elapsedNanos() / 1e9;
+            result.print();
+            System.out.printf("%-22s %d\n", "Jobs Pushed", pushed);
+            System.out.printf("%-22s %.3f s\n", "Wall Time", seconds);
+            System.out.printf("%-22s %.0f\n", "Decisions/s", engine.decisions / seconds);
+            System.out.printf("%-22s %.0f\n", "Completions/s", result.count / seconds);
+        }
+    }
+
+    // Pushes the source into the feed from this thread, at most rate jobs per
+    // second of wall time when rate > 0, then closes the feed.
+    private static long produce(ArrivalSource source, LiveFeed feed, double rate) throws InterruptedException {
+        long begin = System.nanoTime(), pushed = 0;
+        while (source.next()) {
+            feed.submit(source.arrival(), source.burst(), source.priority());
+            pushed++;
+            if (rate > 0 && (pushed & 63) == 0) {
+                long due = begin + (long) (pushed * 1e9 / rate);
+                long ahead = due - System.nanoTime();
+                if (ahead > 0)
+                    LockSupport.parkNanos(ahead);
+            }
+        }
+        feed.close();
+        return pushed;
+    }
+}
@@ -0,0 +1,82 @@
+package SchedulingSimulator;
+
+/*
+ * Preemptive priority and SRTF. Ties in the key go to the earlier arrival (lower
+ * seq), the same as the first minimum the tick loops find. The running process
+ * stays at the top of the queue; for SRTF its key only ever drops while it runs,
+ * and an arrival that beats it simply becomes the new top.
+ */
+class PreemptivePolicy implements SchedulingPolicy {
+    private final boolean shortestRemaining;
+    private final ReadyQueue.Kind kind;
+    private EventEngine e;
+    private ReadyQueue ready;
+    private int running = -1;
+
+    PreemptivePolicy(boolean shortestRemaining, ReadyQueue.Kind kind) {
+        this.shortestRemaining = shortestRemaining;
+        this.kind = kind;
+    }
+
+    public String name() {
+        return shortestRemaining ? "SRTF" : "PRIORITY";
+    }
+
+    public void attach(EventEngine engine) {
+        e = engine;
+        ready = kind.create(shortestRemaining ? this::byRemaining : this::byPriority, 64);
+    }
+
+    private boolean byRemaining(int a, int b) {
+        return e.remaining[a] < e.remaining[b] || (e.remaining[a] == e.remaining[b] && e.seq[a] < e.seq[b]);
+    }
+
+    private boolean byPriority(int a, int b) {
+        return e.priority[a] < e.priority[b] || (e.priority[a] == e.priority[b] && e.seq[a] < e.seq[b]);
+    }
+
+    public void admit(int slot) {
+        ready.add(slot);
+    }
+
+    public boolean isEmpty() {
+        return ready.isEmpty();
+    }
+
+    public int pick(long time) {
+        running = ready.peek();
+        return running;
+    }
+
+    public int slice(int slot) {
+        return Integer.MAX_VALUE;
+    }
+
+    public boolean preemptsOnArrival() {
+        return true;
+    }
+
+    public void ran(int slot, int ran) {
+        if (shortestRemaining)
+            ready.decreaseKey(slot);
+    }
+
+    public void requeue(int slot) {
+        // still queued
+    }
+
+    public void finished(int slot) {
+        ready.poll();
+        running = -1;
+    }
+
+    // The running process sits at the top, so take the one below it.
+    public int steal() {
+        int top = ready.poll();
+        if (top == -1 || top != running)
+            return top;
+        int victim = ready.poll();
+        ready.add(top);
+        return victim;
+    }
+}
@@ -0,0 +1,164 @@
+package SchedulingSimulator;
+
+import java.util.*;
+
+/*
+ * Column-oriented process table for the event engines: one array per field
+ * instead of one Process object per row, so multi-million-row traces stay
+ * compact and the engines scan contiguous memory. Turnaround and waiting time
+ * are derived from the stored columns.
+ *
+ * Once sorted by arrival, the table feeds an engine through rows() and takes the
+ * results back as its CompletionSink, where seq is the row.
+ */
+class ProcessTable implements CompletionSink {
+    int size = 0;
+    int[] pid;
+    int[] arrival;
+    int[] burst;
+    int[] remaining;
+    int[] priority;
+    long[] start; // times are long: bursts in the millions overflow an int clock
+    long[] completion;
+
+    ProcessTable(int capacity) {
+        int n = Math.max(capacity, 1);
+        pid = new int[n];
+        arrival = new int[n];
+        burst = new int[n];
+        remaining = new int[n];
+        priority = new int[n];
+        start = new long[n];
+        completion = new long[n];
+    }
+
+    ProcessTable copy() {
+        ProcessTable t = new ProcessTable(size);
+        t.size = size;
+        System.arraycopy(pid, 0, t.pid, 0, size);
+        System.arraycopy(arrival, 0, t.arrival, 0, size);
+        System.arraycopy(burst, 0, t.burst, 0, size);
+        System.arraycopy(remaining, 0, t.remaining, 0, size);
+        System.arraycopy(priority, 0, t.priority, 0, size);
+        System.arraycopy(start, 0, t.start, 0, size);
+        System.arraycopy(completion, 0, t.completion, 0, size);
+        return t;
+    }
+
+    int add(int pid, int arrival, int burst, int priority) {
+        if (size == this.pid.length)
+            grow(size * 2);
+        int row = size++;
+        this.pid[row] = pid;
+        this.arrival[row] = arrival;
+        this.burst[row] = burst;
+        this.remaining[row] = burst;
+        this.priority[row] = priority;
+        this.start[row] = -1;
+        this.completion[row] = 0;
+        return row;
+    }
+
+    // Cursor over the rows in order; the table must already be sorted by arrival.
+    ArrivalSource rows() {
+        return new ArrivalSource() {
+            int row = -1;
+
+            public boolean next() {
+                return ++row < size;
+            }
+
+            public int arrival() {
+                return arrival[row];
+            }
+
+            public int burst() {
+                return burst[row];
+            }
+
+            public int priority() {
+                return priority[row];
+            }
+        };
+    }
+
+    public void completed(int seq, int arrival, int burst, int priority, long start, long completion) {
+        this.remaining[seq] = 0;
+        this.start[seq] = start;
+        this.completion[seq] = completion;
+    }
+
+    long turnaround(int row) {
+        return completion[row] - arrival[row];
+    }
+
+    long waiting(int row) {
+        return turnaround(row) - burst[row];
+    }
+
+    long response(int row) {
+        return start[row] - arrival[row];
+    }
+
+    // Clears the results of a previous run so the same table can be scheduled again.
+    void reset() {
+        System.arraycopy(burst, 0, remaining, 0, size);
+        Arrays.fill(start, 0, size, -1);
+        Arrays.fill(completion, 0, size, 0);
+    }
+
+    // Stable sort of the rows by arrival time, as List.sort does for the Process lists.
+    void sortByArrival() {
+        boolean sorted = true;
+        for (int i = 1; i < size && sorted; i++) {
+            sorted = arrival[i - 1] <= arrival[i];
+        }
+        if (sorted)
+            return;
+
+        // Arrival in the high half and the row in the low half keeps ties in row order.
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) arrival[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) keys[i];
+        }
+        pid = permute(pid, order);
+        arrival = permute(arrival, order);
+        burst = permute(burst, order);
+        remaining = permute(remaining, order);
+        priority = permute(priority, order);
+        start = permute(start, order);
+        completion = permute(completion, order);
+    }
+
+    private int[] permute(int[] column, int[] order) {
+        int[] result = new int[column.length];
+        for (int i = 0; i < size; i++) {
+            result[i] = column[order[i]];
+        }
+        return result;
+    }
+
+    private long[] permute(long[] column, int[] order) {
+        long[] result = new long[column.length];
+        for (int i = 0; i < size; i++) {
+            result[i] = column[order[i]];
+        }
+        return result;
+    }
+
+    private void grow(int capacity) {
+        pid = Arrays.copyOf(pid, capacity);
+        arrival = Arrays.copyOf(arrival, capacity);
+        burst = Arrays.copyOf(burst, capacity);
+        remaining = Arrays.copyOf(remaining, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        start = Arrays.copyOf(start, capacity);
+        completion = Arrays.copyOf(completion, capacity);
+    }
+}
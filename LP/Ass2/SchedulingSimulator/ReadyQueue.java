@@ -0,0 +1,309 @@
+package SchedulingSimulator;
+
+import java.util.*;
+
+/*
+ * Ready set for the preemptive policies. Processes are identified by an int id
+ * (a slot in the engine's live pool) and ordered by an Order supplied by the
+ * engine, which also decides how ties break.
+ */
+interface ReadyQueue {
+
+    interface Order {
+        boolean less(int a, int b);
+    }
+
+    enum Kind {
+        BINARY,
+        PAIRING,
+        DARY;
+
+        ReadyQueue create(Order order, int capacity) {
+            switch (this) {
+                case BINARY: return new BinaryHeapQueue(order, capacity);
+                case PAIRING: return new PairingHeapQueue(order, capacity);
+                default: return new DaryHeapQueue(order, capacity, 4);
+            }
+        }
+    }
+
+    void add(int id);
+
+    int peek(); // -1 when empty
+
+    int poll(); // -1 when empty
+
+    boolean isEmpty();
+
+    // Restores order after id's key was lowered while it is queued.
+    void decreaseKey(int id);
+}
+
+class BinaryHeapQueue implements ReadyQueue {
+    private final Order order;
+    private int[] heap;
+    private int size = 0;
+
+    BinaryHeapQueue(Order order, int capacity) {
+        this.order = order;
+        this.heap = new int[Math.max(capacity, 1)];
+    }
+
+    public void add(int id) {
+        if (size == heap.length)
+            heap = Arrays.copyOf(heap, size * 2);
+        heap[size] = id;
+        siftUp(size++);
+    }
+
+    public int peek() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    public int poll() {
+        if (size == 0)
+            return -1;
+        int top = heap[0];
+        heap[0] = heap[--size];
+        siftDown(0);
+        return top;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // No position index: lowering the top (what the engine does for the running
+    // process) is free, anything else needs a linear search.
+    public void decreaseKey(int id) {
+        if (size > 0 && heap[0] == id)
+            return;
+        for (int i = 1; i < size; i++) {
+            if (heap[i] == id) {
+                siftUp(i);
+                return;
+            }
+        }
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!order.less(id, heap[parent]))
+                break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = id;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && order.less(heap[child + 1], heap[child]))
+                child++;
+            if (!order.less(heap[child], id))
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = id;
+    }
+}
+
+class PairingHeapQueue implements ReadyQueue {
+    private final Order order;
+    private int[] child, sibling, prev; // prev is the parent for a leftmost child
+    private int root = -1;
+
+    PairingHeapQueue(Order order, int capacity) {
+        this.order = order;
+        int n = Math.max(capacity, 1);
+        child = new int[n];
+        sibling = new int[n];
+        prev = new int[n];
+    }
+
+    public void add(int id) {
+        if (id >= child.length) {
+            int n = Math.max(id + 1, child.length * 2);
+            child = Arrays.copyOf(child, n);
+            sibling = Arrays.copyOf(sibling, n);
+            prev = Arrays.copyOf(prev, n);
+        }
+        child[id] = sibling[id] = prev[id] = -1;
+        root = root == -1 ? id : meld(root, id);
+    }
+
+    public int peek() {
+        return root;
+    }
+
+    public int poll() {
+        int top = root;
+        if (top != -1)
+            root = mergePairs(child[top]);
+        return top;
+    }
+
+    public boolean isEmpty() {
+        return root == -1;
+    }
+
+    public void decreaseKey(int id) {
+        if (id == root)
+            return;
+        int p = prev[id];
+        if (child[p] == id)
+            child[p] = sibling[id];
+        else
+            sibling[p] = sibling[id];
+        if (sibling[id] != -1)
+            prev[sibling[id]] = p;
+        sibling[id] = prev[id] = -1;
+        root = meld(root, id);
+    }
+
+    // Both arguments are roots with no siblings.
+    private int meld(int a, int b) {
+        if (order.less(b, a)) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        sibling[b] = child[a];
+        if (child[a] != -1)
+            prev[child[a]] = b;
+        prev[b] = a;
+        child[a] = b;
+        return a;
+    }
+
+    // Standard two-pass pairing, done iteratively with the sibling links as a stack.
+    private int mergePairs(int first) {
+        if (first == -1)
+            return -1;
+        int stack = -1;
+        int a = first;
+        while (a != -1) {
+            int b = sibling[a];
+            int rest = b == -1 ? -1 : sibling[b];
+            sibling[a] = prev[a] = -1;
+            int merged = a;
+            if (b != -1) {
+                sibling[b] = prev[b] = -1;
+                merged = meld(a, b);
+            }
+            sibling[merged] = stack;
+            stack = merged;
+            a = rest;
+        }
+
+        int result = stack;
+        stack = sibling[result];
+        sibling[result] = -1;
+        while (stack != -1) {
+            int nextInStack = sibling[stack];
+            sibling[stack] = -1;
+            result = meld(result, stack);
+            stack = nextInStack;
+        }
+        prev[result] = -1;
+        return result;
+    }
+}
+
+class DaryHeapQueue implements ReadyQueue {
+    private final Order order;
+    private final int d;
+    private int[] heap;
+    private int[] pos; // pos[id] = slot in heap, -1 when not queued
+    private int size = 0;
+
+    DaryHeapQueue(Order order, int capacity, int d) {
+        this.order = order;
+        this.d = d;
+        int n = Math.max(capacity, 1);
+        heap = new int[n];
+        pos = new int[n];
+        Arrays.fill(pos, -1);
+    }
+
+    public void add(int id) {
+        if (size == heap.length)
+            heap = Arrays.copyOf(heap, size * 2);
+        if (id >= pos.length) {
+            int old = pos.length;
+            pos = Arrays.copyOf(pos, Math.max(id + 1, old * 2));
+            Arrays.fill(pos, old, pos.length, -1);
+        }
+        heap[size] = id;
+        pos[id] = size;
+        siftUp(size++);
+    }
+
+    public int peek() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    public int poll() {
+        if (size == 0)
+            return -1;
+        int top = heap[0];
+        pos[top] = -1;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void decreaseKey(int id) {
+        if (pos[id] != -1)
+            siftUp(pos[id]);
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / d;
+            if (!order.less(id, heap[parent]))
+                break;
+            heap[i] = heap[parent];
+            pos[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        while (true) {
+            int first = d * i + 1;
+            if (first >= size)
+                break;
+            int best = first;
+            int last = Math.min(first + d, size);
+            for (int c = first + 1; c < last; c++) {
+                if (order.less(heap[c], heap[best]))
+                    best = c;
+            }
+            if (!order.less(heap[best], id))
+                break;
+            heap[i] = heap[best];
+            pos[heap[i]] = i;
+            i = best;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+}
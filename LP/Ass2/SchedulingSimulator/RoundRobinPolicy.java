@@ -0,0 +1,23 @@
+package SchedulingSimulator;
+
+/*
+ * Round Robin on FcfsPolicy's queue with a fixed quantum. The queue holds slots
+ * in an int ring, so a quantum costs O(1) however many processes there are.
+ * Arrivals during a slice queue up ahead of the preempted process because the
+ * engine admits them before calling requeue.
+ */
+class RoundRobinPolicy extends FcfsPolicy {
+    private final int quantum;
+
+    RoundRobinPolicy(int quantum) {
+        this.quantum = quantum;
+    }
+
+    public String name() {
+        return "RR";
+    }
+
+    public int slice(int slot) {
+        return quantum;
+    }
+}
@@ -0,0 +1,145 @@
+package SchedulingSimulator;
+
+import java.util.Locale;
+
+/*
+ * Outcome of one headless run. Aggregates are accumulated one completion at a
+ * time, so the same class summarises a finished ProcessTable or sits directly
+ * behind a streaming engine as its CompletionSink. table is null for streamed
+ * runs, where per-process rows are never kept.
+ *
+ * Turnaround, waiting and response times also go into LatencyHistograms, so the
+ * summary has percentiles as well as means without keeping the samples. The
+ * decision and context-switch counts come from the engine, which the runner
+ * copies in after the run.
+ */
+class ScheduleResult implements CompletionSink {
+    final String algorithm;
+    final ProcessTable table;
+    int count = 0;
+    long firstArrival = Long.MAX_VALUE;
+    long lastCompletion = 0;
+    long busyTime = 0;
+    long totalTurnaround = 0;
+    long totalWaiting = 0;
+    long totalResponse = 0;
+    long decisions = 0;
+    long contextSwitches = 0;
+    final LatencyHistogram turnaround = new LatencyHistogram();
+    final LatencyHistogram waiting = new LatencyHistogram();
+    final LatencyHistogram response = new LatencyHistogram();
+
+    ScheduleResult(String algorithm) {
+        this.algorithm = algorithm;
+        this.table = null;
+    }
+
+    ScheduleResult(String algorithm, ProcessTable table) {
+        this.algorithm = algorithm;
+        this.table = table;
+        for (int i = 0; i < table.size; i++) {
+            completed(i, table.arrival[i], table.burst[i], table.priority[i], table.start[i], table.completion[i]);
+        }
+    }
+
+    public void completed(int seq, int arrival, int burst, int priority, long start, long completion) {
+        count++;
+        firstArrival = Math.min(firstArrival, arrival);
+        lastCompletion = Math.max(lastCompletion, completion);
+        busyTime += burst;
+        totalTurnaround += completion - arrival;
+        totalWaiting += completion - arrival - burst;
+        totalResponse += start - arrival;
+        turnaround.record(completion - arrival);
+        waiting.record(completion - arrival - burst);
+        response.record(start - arrival);
+    }
+
+    void engineCounts(long decisions, long contextSwitches) {
+        this.decisions = decisions;
+        this.contextSwitches = contextSwitches;
+    }
+
+    long makespan() {
+        return count == 0 ? 0 : lastCompletion - firstArrival;
+    }
+
+    double avgTurnaround() {
+        return count == 0 ? 0 : (double) totalTurnaround / count;
+    }
+
+    double avgWaiting() {
+        return count == 0 ? 0 : (double) totalWaiting / count;
+    }
+
+    double avgResponse() {
+        return count == 0 ? 0 : (double) totalResponse / count;
+    }
+
+    double throughput() {
+        return makespan() == 0 ? 0 : (double) count / makespan();
+    }
+
+    double cpuUtilization() {
+        return makespan() == 0 ? 0 : (double) busyTime / makespan();
+    }
+
+    void print() {
+        System.out.println("--- " + algorithm + " Batch Summary ---");
+        System.out.printf("%-22s %d\n", "Processes", count);
+        System.out.printf("%-22s %d\n", "Makespan", makespan());
+        System.out.printf("%-22s %.3f\n", "Avg Turnaround", avgTurnaround());
+        System.out.printf("%-22s %.3f\n", "Avg Waiting", avgWaiting());
+        System.out.printf("%-22s %.3f\n", "Avg Response", avgResponse());
+        System.out.printf("%-22s %.6f\n", "Throughput (per unit)", throughput());
+        System.out.printf("%-22s %.2f%%\n", "CPU Utilization", cpuUtilization() * 100);
+        System.out.printf("%-22s %d\n", "Decisions", decisions);
+        System.out.printf("%-22s %d\n", "Context Switches", contextSwitches);
+        printLatencies();
+    }
+
+    void printLatencies() {
+        System.out.printf("%-22s %10s %10s %10s %10s %10s %10s\n", "Latency", "mean", "p50", "p90", "p99", "p99.9",
+                "max");
+        printLatency("  Turnaround", turnaround);
+        printLatency("  Waiting", waiting);
+        printLatency("  Response", response);
+    }
+
+    private static void printLatency(String label, LatencyHistogram h) {
+        System.out.printf("%-22s %10.3f %10d %10d %10d %10d %10d\n", label, h.mean(), h.percentile(50),
+                h.percentile(90), h.percentile(99), h.percentile(99.9), h.max);
+    }
+
+    static final String CSV_HEADER = "algorithm,quantum,workload,processes,makespan,avg_turnaround,"
+            + "avg_waiting,avg_response,throughput,cpu_utilization,context_switches,"
+            + "turnaround_p50,turnaround_p99,turnaround_p999,waiting_p50,waiting_p99,waiting_p999,"
+            + "response_p50,response_p99,response_p999";
+
+    String toCsv(int quantum, String workload) {
+        return String.format(Locale.ROOT, "%s,%d,%s,%d,%d,%.3f,%.3f,%.3f,%.6f,%.4f,%d,%s,%s,%s", algorithm,
+                quantum, workload.contains(",") ? "\"" + workload.replace("\"", "\"\"") + "\"" : workload, count,
+                makespan(), avgTurnaround(), avgWaiting(), avgResponse(), throughput(), cpuUtilization(),
+                contextSwitches, tails(turnaround), tails(waiting), tails(response));
+    }
+
+    String toJson(int quantum, String workload) {
+        return String.format(Locale.ROOT, "{\"algorithm\":\"%s\",\"quantum\":%d,\"workload\":\"%s\",\"processes\":%d,"
+                + "\"makespan\":%d,\"avgTurnaround\":%.3f,\"avgWaiting\":%.3f,\"avgResponse\":%.3f,"
+                + "\"throughput\":%.6f,\"cpuUtilization\":%.4f,\"contextSwitches\":%d,"
+                + "\"turnaround\":%s,\"waiting\":%s,\"response\":%s}", algorithm, quantum,
+                workload.replace("\\", "\\\\").replace("\"", "\\\""), count, makespan(), avgTurnaround(),
+                avgWaiting(), avgResponse(), throughput(), cpuUtilization(), contextSwitches,
+                tailsJson(turnaround), tailsJson(waiting), tailsJson(response));
+    }
+
+    // p50, p99 and p99.9 of one histogram.
+    private static String tails(LatencyHistogram h) {
+        return h.percentile(50) + "," + h.percentile(99) + "," + h.percentile(99.9);
+    }
+
+    private static String tailsJson(LatencyHistogram h) {
+        return "{\"p50\":" + h.percentile(50) + ",\"p99\":" + h.percentile(99) + ",\"p999\":" + h.percentile(99.9)
+                + "}";
+    }
+}
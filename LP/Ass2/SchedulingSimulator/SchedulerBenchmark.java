@@ -0,0 +1,232 @@
+package SchedulingSimulator;
+
+import java.lang.management.*;
+import java.util.*;
+
+/*
+ * Microbenchmark of every scheduling algorithm over streamed workloads of
+ * increasing size, laid out like a JMH run: warmup iterations, then timed
+ * measurement iterations of at least --time ms each, reporting ops/s (one op =
+ * scheduling the whole workload) with its standard deviation, processes per
+ * second, allocation per op and GC count/time over the measurement (the
+ * equivalent of -prof gc), and the scaling exponent between consecutive sizes
+ * (1.0 is linear in n).
+ *
+ * Each op replays a seeded WorkloadGenerator into a fresh engine with a checksum
+ * sink, so nothing but the engine and policy is measured beyond the generator
+ * itself; the "generator" row is that baseline on its own. Sizes up to 10^7 fit
+ * in a small heap because nothing per process outlives its completion.
+ */
+class SchedulerBenchmark {
+
+    static final String USAGE = "Usage: SchedulingSimulator --bench [all|fcfs,priority,rr,srtf,mlfq,lottery,stride]"
+            + " [--sizes n,...] [--warmup i] [--iterations i] [--time ms] [--quantum q] "
+            + BatchRunner.Options.USAGE + " " + WorkloadGenerator.OPTIONS;
+
+    static volatile long blackhole;
+
+    // Consumes completions so the JIT cannot drop the run.
+    static class Checksum implements CompletionSink {
+        long sum;
+
+        public void completed(int seq, int arrival, int burst, int priority, long start, long completion) {
+            sum += completion - start;
+        }
+    }
+
+    static class Score {
+        final String name;
+        final int size;
+        double opsPerSecond, error;
+        long allocatedPerOp = -1;
+        long gcCount, gcTime;
+
+        Score(String name, int size) {
+            this.name = name;
+            this.size = size;
+        }
+    }
+
+    private final int warmup, iterations;
+    private final long minNanos;
+
+    SchedulerBenchmark(int warmup, int iterations, long minMillis) {
+        this.warmup = warmup;
+        this.iterations = iterations;
+        this.minNanos = minMillis * 1_000_000;
+    }
+
+    // algorithm null benchmarks the generator alone.
+    Score measure(BatchRunner.Algorithm algorithm, int quantum, BatchRunner.Options options,
+            WorkloadGenerator workload) {
+        Checksum sink = new Checksum();
+        Score score = new Score(algorithm == null ? "generator" : algorithm.name(), workload.count);
+
+        for (int i = 0; i < warmup; i++) {
+            iteration(algorithm, quantum, options, workload, sink);
+        }
+
+        long gcCount = gcCount(), gcTime = gcTime();
+        long allocated = allocatedBytes();
+        long totalOps = 0;
+        double[] rates = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long begin = System.nanoTime();
+            long ops = iteration(algorithm, quantum, options, workload, sink);
+            rates[i] = ops / ((System.nanoTime() - begin) / 1e9);
+            totalOps += ops;
+        }
+        if (allocated >= 0)
+            score.allocatedPerOp = (allocatedBytes() - allocated) / totalOps;
+        score.gcCount = gcCount() - gcCount;
+        score.gcTime = gcTime() - gcTime;
+
+        double sum = 0, squares = 0;
+        for (double rate : rates) {
+            sum += rate;
+        }
+        score.opsPerSecond = sum / iterations;
+        for (double rate : rates) {
+            squares += (rate - score.opsPerSecond) * (rate - score.opsPerSecond);
+        }
+        score.error = iterations > 1 ? Math.sqrt(squares / (iterations - 1)) : 0;
+        blackhole += sink.sum;
+        return score;
+    }
+
+    // Runs ops back to back until the iteration has lasted minNanos; returns the op count.
+    private long iteration(BatchRunner.Algorithm algorithm, int quantum, BatchRunner.Options options,
+            WorkloadGenerator workload, Checksum sink) {
+        long begin = System.nanoTime(), ops = 0;
+        do {
+            workload.reset();
+            if (algorithm == null) {
+                while (workload.next()) {
+                    sink.sum += workload.burst();
+                }
+            } else {
+                new EventEngine(workload, sink).run(algorithm.create(quantum, options));
+            }
+            ops++;
+        } while (System.nanoTime() - begin < minNanos);
+        return ops;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled())
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    static void cli(String[] args) {
+        List<BatchRunner.Algorithm> algorithms = new ArrayList<>(Arrays.asList(BatchRunner.Algorithm.values()));
+        int[] sizes = { 1_000, 10_000, 100_000, 1_000_000 };
+        int warmup = 3, iterations = 5, quantum = 4;
+        long millis = 500;
+        BatchRunner.Options options = new BatchRunner.Options();
+        WorkloadGenerator workload = new WorkloadGenerator(0);
+        try {
+            int i = 1;
+            if (i < args.length && !args[i].startsWith("--")) {
+                String list = args[i++];
+                if (!list.equals("all")) {
+                    algorithms.clear();
+                    for (String name : list.split(",")) {
+                        algorithms.add(BatchRunner.Algorithm.valueOf(name.toUpperCase()));
+                    }
+                }
+            }
+            for (; i < args.length; i += 2) {
+                if (i + 1 >= args.length)
+                    throw new IllegalArgumentException(args[i]);
+                String flag = args[i], value = args[i + 1];
+                if (flag.equals("--sizes")) {
+                    String[] parts = value.split(",");
+                    sizes = new int[parts.length];
+                    for (int j = 0; j < parts.length; j++) {
+                        sizes[j] = (int) Double.parseDouble(parts[j]); // accepts 1e7
+                    }
+                } else if (flag.equals("--warmup")) {
+                    warmup = Integer.parseInt(value);
+                } else if (flag.equals("--iterations")) {
+                    iterations = Integer.parseInt(value);
+                } else if (flag.equals("--time")) {
+                    millis = Long.parseLong(value);
+                } else if (flag.equals("--quantum")) {
+                    quantum = Integer.parseInt(value);
+                } else if (!options.option(flag, value) && !workload.option(flag, value)) {
+                    throw new IllegalArgumentException(flag);
+                }
+            }
+            if (warmup < 0 || iterations <= 0 || quantum <= 0)
+                throw new IllegalArgumentException();
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        SchedulerBenchmark bench = new SchedulerBenchmark(warmup, iterations, millis);
+        System.out.printf("# Warmup: %d iterations, Measurement: %d iterations, %d ms each, quantum %d\n", warmup,
+                iterations, millis, quantum);
+        System.out.printf("%-10s %10s %14s %12s %14s %10s %12s %8s %8s %8s\n", "Benchmark", "n", "ops/s",
+                "error", "procs/s", "ns/proc", "B/op", "gc.count", "gc.ms", "scaling");
+
+        List<BatchRunner.Algorithm> rows = new ArrayList<>();
+        rows.add(null); // generator baseline
+        rows.addAll(algorithms);
+        for (BatchRunner.Algorithm algorithm : rows) {
+            Score previous = null;
+            for (int size : sizes) {
+                WorkloadGenerator sized = copy(workload, size);
+                Score score = bench.measure(algorithm, quantum, options, sized);
+                print(score, previous);
+                previous = score;
+            }
+        }
+    }
+
+    private static WorkloadGenerator copy(WorkloadGenerator options, int count) {
+        WorkloadGenerator g = new WorkloadGenerator(count);
+        g.seed = options.seed;
+        g.meanInterarrival = options.meanInterarrival;
+        g.pareto = options.pareto;
+        g.burstMean = options.burstMean;
+        g.paretoAlpha = options.paretoAlpha;
+        g.paretoMin = options.paretoMin;
+        g.priorityWeights = options.priorityWeights;
+        return g;
+    }
+
+    private static void print(Score s, Score previous) {
+        double nanosPerProcess = 1e9 / (s.opsPerSecond * s.size);
+        String scaling = "";
+        if (previous != null) {
+            // time ~ n^k, so k = log(t2 / t1) / log(n2 / n1)
+            double k = Math.log(previous.opsPerSecond / s.opsPerSecond) / Math.log((double) s.size / previous.size);
+            scaling = String.format(Locale.ROOT, "%.2f", k);
+        }
+        System.out.printf(Locale.ROOT, "%-10s %10d %14.3f %12.3f %14.0f %10.1f %12s %8d %8d %8s\n", s.name, s.size,
+                s.opsPerSecond, s.error, s.opsPerSecond * s.size, nanosPerProcess,
+                s.allocatedPerOp < 0 ? "n/a" : Long.toString(s.allocatedPerOp), s.gcCount, s.gcTime, scaling);
+    }
+}
@@ -0,0 +1,48 @@
+package SchedulingSimulator;
+
+/*
+ * Decision logic plugged into EventEngine.run. The engine owns the clock, the
+ * arrivals and the live-process columns; a policy only keeps its ready set and
+ * says who runs next and for how long. Slots are the engine's slot numbers.
+ *
+ * Per scheduling decision the engine calls pick, then slice, then ran once the
+ * process has run; afterwards either finished, or (once arrivals up to the new
+ * time have been admitted) requeue.
+ */
+interface SchedulingPolicy {
+
+    String name();
+
+    // Called once before the run, so the policy can read the engine's columns.
+    void attach(EventEngine engine);
+
+    // A newly arrived process.
+    void admit(int slot);
+
+    boolean isEmpty();
+
+    // The process to run next; the ready set is known to be non-empty.
+    int pick(long time);
+
+    // Longest the process may run before the policy decides again.
+    int slice(int slot);
+
+    // Whether an arrival interrupts the running process for a new decision.
+    boolean preemptsOnArrival();
+
+    void ran(int slot, int ran);
+
+    // The process did not finish in its slice (or was interrupted by an arrival).
+    void requeue(int slot);
+
+    void finished(int slot);
+
+    // Removes a ready process that is not running, for another CPU to take; -1 if
+    // there is none. The thief admits it to its own policy like a new arrival.
+    int steal();
+
+    // Lottery and stride hand out tickets by priority: a lower number means more.
+    static int tickets(int priority) {
+        return priority <= 0 ? 100 : Math.max(1, 100 / (priority + 1));
+    }
+}
@@ -1,6 +1,7 @@
 
 package SchedulingSimulator;
 
+import java.io.IOException;
 import java.util.*;
 
 class Process {
@@ -26,7 +27,30 @@ class Process {
 
 public class SchedulingSimulator {
 
-    public static void main(String[] args) throws InterruptedException {
+    public static void main(String[] args) throws InterruptedException, IOException {
+        if (args.length > 0 && args[0].equals("--sweep")) {
+            SweepRunner.cli(args);
+            return;
+        } else if (args.length > 0 && args[0].equals("--bench")) {
+            SchedulerBenchmark.cli(args);
+            return;
+        } else if (args.length > 0 && args[0].equals("--online")) {
+            OnlineScheduler.cli(args);
+            return;
+        } else if (args.length > 0 && args[0].equals("--io")) {
+            BatchRunner.io(args);
+            return;
+        } else if (args.length > 0 && args[0].equals("--view")) {
+            GanttViewer.cli(args);
+            return;
+        } else if (args.length > 0 && args[0].equals("--generate")) {
+            BatchRunner.generate(args);
+            return;
+        } else if (args.length > 0) {
+            BatchRunner.cli(args);
+            return;
+        }
+
         Scanner sc = new Scanner(System.in);
 
         while (true) {
@@ -122,7 +146,7 @@ public class SchedulingSimulator {
             time++;
         }
 
-        printSummary(processes, false);
+        printSummary(processes, false, contextSwitches(processes, new FcfsPolicy()));
     }
 
     private static void simulatePriority(List<Process> processes) throws InterruptedException {
@@ -174,23 +198,19 @@ public class SchedulingSimulator {
             Thread.sleep(500);
         }
 
-        printSummary(processes, true);
+        printSummary(processes, true, contextSwitches(processes, new PreemptivePolicy(false, ReadyQueue.Kind.DARY)));
     }
 
     private static void simulateRoundRobin(List<Process> processes, int quantum) throws InterruptedException {
         processes.sort(Comparator.comparingInt(p -> p.arrivalTime));
-        Queue<Process> queue = new LinkedList<>();
-        int time = 0, completed = 0;
-        boolean[] added = new boolean[processes.size()];
+        Queue<Process> queue = new ArrayDeque<>();
+        int time = 0, completed = 0, next = 0;
 
         System.out.println("\n--- Round Robin Scheduling Simulation ---\n");
 
         while (completed < processes.size()) {
-            for (int i = 0; i < processes.size(); i++) {
-                if (!added[i] && processes.get(i).arrivalTime <= time) {
-                    queue.add(processes.get(i));
-                    added[i] = true;
-                }
+            while (next < processes.size() && processes.get(next).arrivalTime <= time) {
+                queue.add(processes.get(next++));
             }
 
             if (queue.isEmpty()) {
@@ -215,11 +235,8 @@ public class SchedulingSimulator {
             time += exec;
             current.remainingTime -= exec;
 
-            for (int i = 0; i < processes.size(); i++) {
-                if (!added[i] && processes.get(i).arrivalTime <= time) {
-                    queue.add(processes.get(i));
-                    added[i] = true;
-                }
+            while (next < processes.size() && processes.get(next).arrivalTime <= time) {
+                queue.add(processes.get(next++));
             }
 
             if (current.remainingTime == 0) {
@@ -234,7 +251,7 @@ public class SchedulingSimulator {
             }
         }
 
-        printSummary(processes, false);
+        printSummary(processes, false, contextSwitches(processes, new RoundRobinPolicy(quantum)));
     }
 
     private static void simulateSJF(List<Process> processes) throws InterruptedException {
@@ -286,7 +303,7 @@ public class SchedulingSimulator {
             Thread.sleep(500);
         }
 
-        printSummary(processes, false);
+        printSummary(processes, false, contextSwitches(processes, new PreemptivePolicy(true, ReadyQueue.Kind.DARY)));
     }
 
 
@@ -304,7 +321,17 @@ public class SchedulingSimulator {
         System.out.println();
     }
 
-    private static void printSummary(List<Process> processes, boolean showPriority) {
+    // The tick loops do not track dispatches, so the count comes from the event
+    // engine scheduling the same processes, which produces the same schedule.
+    private static long contextSwitches(List<Process> processes, SchedulingPolicy policy) {
+        ProcessTable table = new ProcessTable(processes.size());
+        for (Process p : processes) {
+            table.add(p.pid, p.arrivalTime, p.burstTime, p.priority);
+        }
+        return EventEngine.run(table, policy).contextSwitches;
+    }
+
+    private static void printSummary(List<Process> processes, boolean showPriority, long contextSwitches) {
         System.out.println("--- Summary ---");
         if (showPriority) {
             System.out.printf("%-6s %-10s %-10s %-10s %-10s %-12s %-10s\n", "PID", "Arrival", "Burst", "Priority", "Start", "Turnaround", "Waiting");
@@ -319,5 +346,14 @@ public class SchedulingSimulator {
                         p.pid, p.arrivalTime, p.burstTime, p.startTime, p.turnaroundTime, p.waitingTime);
             }
         }
+
+        ScheduleResult result = new ScheduleResult("");
+        for (Process p : processes) {
+            result.completed(p.pid, p.arrivalTime, p.burstTime, p.priority, p.startTime, p.completionTime);
+        }
+        System.out.printf("\n%-22s %.6f\n", "Throughput (per unit)", result.throughput());
+        System.out.printf("%-22s %.2f%%\n", "CPU Utilization", result.cpuUtilization() * 100);
+        System.out.printf("%-22s %d\n", "Context Switches", contextSwitches);
+        result.printLatencies();
     }
 }
@@ -0,0 +1,79 @@
+package SchedulingSimulator;
+
+import java.util.*;
+
+/*
+ * Stride scheduling: the deterministic counterpart of lottery. Each process has
+ * stride = STRIDE1 / tickets and a pass value; the lowest pass runs for a quantum
+ * and its pass advances by stride per time unit actually used. A new arrival
+ * starts at the current global pass so it cannot monopolise the CPU. The ready
+ * set is a ReadyQueue ordered by pass, so each decision is O(log n).
+ */
+class StridePolicy implements SchedulingPolicy {
+    static final long STRIDE1 = 1 << 20;
+
+    private final int quantum;
+    private final ReadyQueue.Kind kind;
+    private EventEngine e;
+    private ReadyQueue ready;
+    private long[] pass = new long[64];
+    private long globalPass = 0;
+
+    StridePolicy(int quantum, ReadyQueue.Kind kind) {
+        this.quantum = quantum;
+        this.kind = kind;
+    }
+
+    public String name() {
+        return "STRIDE";
+    }
+
+    public void attach(EventEngine engine) {
+        e = engine;
+        ready = kind.create(this::byPass, 64);
+    }
+
+    private boolean byPass(int a, int b) {
+        return pass[a] < pass[b] || (pass[a] == pass[b] && e.seq[a] < e.seq[b]);
+    }
+
+    public void admit(int slot) {
+        if (slot >= pass.length)
+            pass = Arrays.copyOf(pass, Math.max(slot + 1, pass.length * 2));
+        pass[slot] = globalPass;
+        ready.add(slot);
+    }
+
+    public boolean isEmpty() {
+        return ready.isEmpty();
+    }
+
+    public int pick(long time) {
+        int slot = ready.poll();
+        globalPass = pass[slot];
+        return slot;
+    }
+
+    public int slice(int slot) {
+        return quantum;
+    }
+
+    public boolean preemptsOnArrival() {
+        return false;
+    }
+
+    public void ran(int slot, int ran) {
+        pass[slot] += STRIDE1 / SchedulingPolicy.tickets(e.priority[slot]) * ran;
+    }
+
+    public void requeue(int slot) {
+        ready.add(slot);
+    }
+
+    public void finished(int slot) {
+    }
+
+    public int steal() {
+        return ready.poll();
+    }
+}
@@ -0,0 +1,142 @@
+package SchedulingSimulator;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/*
+ * Runs a matrix of (algorithm, quantum, workload) cells as independent batch
+ * simulations on a fork-join pool and collects one CSV or JSON report.
+ *
+ * Each workload is read and sorted once; every cell schedules its own copy of
+ * the table, so cells share nothing and the sweep scales with the number of
+ * cores. The quantum only varies the algorithms that use one (RR, MLFQ,
+ * lottery, stride) - the others get one cell per workload. Rows come out in
+ * matrix order regardless of which cell finishes first.
+ */
+class SweepRunner {
+
+    static final String USAGE = "Usage: SchedulingSimulator --sweep <all|fcfs,priority,rr,srtf,mlfq,lottery,stride>"
+            + " <quantum,...> <workload-file>... [--threads n] [--format csv|json] [--out file] "
+            + BatchRunner.Options.USAGE;
+
+    static List<String> sweep(List<BatchRunner.Algorithm> algorithms, int[] quanta, Map<String, ProcessTable> workloads,
+            BatchRunner.Options options, boolean json, int threads) throws InterruptedException, ExecutionException {
+        List<Callable<String>> cells = new ArrayList<>();
+        for (Map.Entry<String, ProcessTable> workload : workloads.entrySet()) {
+            ProcessTable table = workload.getValue();
+            table.sortByArrival();
+
+            for (BatchRunner.Algorithm algorithm : algorithms) {
+                int[] cellQuanta = algorithm.usesQuantum() ? quanta : new int[] { 0 };
+                for (int quantum : cellQuanta) {
+                    String name = workload.getKey();
+                    cells.add(() -> {
+                        ScheduleResult result = BatchRunner.run(table.copy(), algorithm, quantum, options);
+                        return json ? result.toJson(quantum, name) : result.toCsv(quantum, name);
+                    });
+                }
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<String> rows = new ArrayList<>(cells.size());
+            for (Future<String> row : pool.invokeAll(cells)) {
+                rows.add(row.get());
+            }
+            return rows;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static void cli(String[] args) throws IOException, InterruptedException {
+        if (args.length < 4) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        List<BatchRunner.Algorithm> algorithms = new ArrayList<>();
+        List<String> files = new ArrayList<>();
+        int[] quanta;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean json = false;
+        String out = null;
+        BatchRunner.Options options = new BatchRunner.Options();
+
+        try {
+            if (args[1].equalsIgnoreCase("all")) {
+                algorithms.addAll(Arrays.asList(BatchRunner.Algorithm.values()));
+            } else {
+                for (String name : args[1].split(",")) {
+                    algorithms.add(BatchRunner.Algorithm.valueOf(name.trim().toUpperCase()));
+                }
+            }
+
+            String[] q = args[2].split(",");
+            quanta = new int[q.length];
+            for (int i = 0; i < q.length; i++) {
+                quanta[i] = Integer.parseInt(q[i].trim());
+                if (quanta[i] <= 0)
+                    throw new IllegalArgumentException("quantum");
+            }
+
+            for (int i = 3; i < args.length; i++) {
+                if (args[i].equals("--threads") && i + 1 < args.length)
+                    threads = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--format") && i + 1 < args.length)
+                    json = args[++i].equalsIgnoreCase("json");
+                else if (args[i].equals("--out") && i + 1 < args.length)
+                    out = args[++i];
+                else if (i + 1 < args.length && options.option(args[i], args[i + 1]))
+                    i++;
+                else
+                    files.add(args[i]);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        if (files.isEmpty() || threads <= 0) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        Map<String, ProcessTable> workloads = new LinkedHashMap<>();
+        for (String file : files) {
+            workloads.put(file, BatchRunner.readWorkload(file));
+        }
+
+        long begin = System.nanoTime();
+        List<String> rows;
+        try {
+            rows = sweep(algorithms, quanta, workloads, options, json, threads);
+        } catch (ExecutionException e) {
+            throw new IOException("sweep cell failed", e.getCause());
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        BufferedWriter w = new BufferedWriter(out == null ? new OutputStreamWriter(System.out) : new FileWriter(out));
+        try {
+            w.write(json ? "[" : ScheduleResult.CSV_HEADER);
+            w.newLine();
+            for (int i = 0; i < rows.size(); i++) {
+                w.write(json ? "  " + rows.get(i) + (i + 1 < rows.size() ? "," : "") : rows.get(i));
+                w.newLine();
+            }
+            if (json) {
+                w.write("]");
+                w.newLine();
+            }
+        } finally {
+            if (out == null)
+                w.flush(); // leave System.out open
+            else
+                w.close();
+        }
+
+        System.err.printf("%d cells on %d threads in %.3f ms\n", rows.size(), threads, elapsed / 1e6);
+    }
+}
@@ -0,0 +1,11 @@
+package SchedulingSimulator;
+
+/*
+ * Receives the schedule itself: one call per stretch of CPU time a process got,
+ * [start, end) on the given core. seq is the process's position in its
+ * ArrivalSource, as for CompletionSink.
+ */
+interface TimelineSink {
+
+    void segment(int core, int seq, long start, long end);
+}
@@ -0,0 +1,141 @@
+package SchedulingSimulator;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+/*
+ * Binary workload trace: a 16-byte header (magic "SCTR", version, record count)
+ * followed by one 12-byte record per process - arrival, burst, priority as
+ * big-endian ints, in arrival order. PIDs are the record positions, 1-based.
+ * A replay rejects a negative arrival or a burst that is not positive.
+ *
+ * Traces are written through a buffered channel and read back through a
+ * memory-mapped window that slides along the file, so replaying a trace of any
+ * length maps at most WINDOW bytes at a time.
+ */
+class TraceFile {
+    static final int MAGIC = 0x53435452; // "SCTR"
+    static final int VERSION = 1;
+    static final int HEADER = 16;
+    static final int RECORD = 12;
+    static final long WINDOW = RECORD * (1L << 22); // 48 MiB, a whole number of records
+
+    static boolean isTrace(String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(path))) {
+            return in.readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    static long write(ArrivalSource source, String path) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(RECORD * 8192);
+            buf.putInt(MAGIC).putInt(VERSION).putLong(0);
+
+            long count = 0;
+            int last = Integer.MIN_VALUE;
+            while (source.next()) {
+                if (source.arrival() < last)
+                    throw new IOException("Trace records must be in arrival order");
+                last = source.arrival();
+                if (buf.remaining() < RECORD)
+                    drain(ch, buf);
+                buf.putInt(source.arrival()).putInt(source.burst()).putInt(source.priority());
+                count++;
+            }
+            drain(ch, buf);
+
+            ByteBuffer header = ByteBuffer.allocate(8).putLong(count);
+            header.flip();
+            ch.write(header, 8);
+            return count;
+        }
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+        buf.clear();
+    }
+
+    static Replay open(String path) throws IOException {
+        return new Replay(path);
+    }
+
+    static class Replay implements ArrivalSource, Closeable {
+        private final String path;
+        private final FileChannel ch;
+        final long count;
+        private long read = 0;
+        private long windowStart = HEADER;
+        private MappedByteBuffer window;
+        private int arrival, burst, priority;
+
+        Replay(String path) throws IOException {
+            this.path = path;
+            ch = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            while (header.hasRemaining() && ch.read(header) >= 0) {
+            }
+            header.flip();
+            if (header.remaining() < HEADER || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                ch.close();
+                throw new IOException(path + ": not a scheduler trace");
+            }
+            count = header.getLong();
+            if (ch.size() < HEADER + count * RECORD) {
+                ch.close();
+                throw new IOException(path + ": truncated trace");
+            }
+            map();
+        }
+
+        private void map() throws IOException {
+            long end = Math.min(HEADER + count * RECORD, windowStart + WINDOW);
+            window = ch.map(FileChannel.MapMode.READ_ONLY, windowStart, end - windowStart);
+        }
+
+        public boolean next() {
+            if (read == count)
+                return false;
+            if (!window.hasRemaining()) {
+                windowStart += window.capacity();
+                try {
+                    map();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            arrival = window.getInt();
+            burst = window.getInt();
+            priority = window.getInt();
+            read++;
+            if (arrival < 0 || burst <= 0)
+                throw new UncheckedIOException(new IOException(path + ":record " + read + ": "
+                        + (arrival < 0 ? "negative arrival " + arrival : "burst must be positive, got " + burst)));
+            return true;
+        }
+
+        public int arrival() {
+            return arrival;
+        }
+
+        public int burst() {
+            return burst;
+        }
+
+        public int priority() {
+            return priority;
+        }
+
+        public void close() throws IOException {
+            ch.close();
+        }
+    }
+}
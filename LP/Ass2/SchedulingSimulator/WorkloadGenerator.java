@@ -0,0 +1,135 @@
+package SchedulingSimulator;
+
+import java.util.*;
+
+/*
+ * Seeded synthetic workload, produced one process at a time as an ArrivalSource.
+ *
+ * Arrivals are a Poisson process (exponential gaps with the given mean), bursts
+ * are exponential or Pareto, and priorities are drawn from a weighted mix where
+ * weight i is the share of priority i. The same seed always gives the same
+ * trace. Nothing is stored per process, so a 10^7-job run needs no more memory
+ * than the scheduler's live set.
+ */
+class WorkloadGenerator implements ArrivalSource {
+
+    static final String OPTIONS = "[--seed n] [--interarrival mean] [--burst exp:mean|pareto:alpha:min]"
+            + " [--priorities w0,w1,...]";
+
+    final int count;
+    long seed = 42;
+    double meanInterarrival = 5;
+    boolean pareto = false;
+    double burstMean = 4;     // exponential
+    double paretoAlpha = 1.5; // pareto shape
+    double paretoMin = 1;     // pareto scale
+    double[] priorityWeights = { 1 };
+
+    private SplittableRandom random;
+    private double[] cumulative;
+    private double clock;
+    private int produced;
+    private int arrival, burst, priority;
+
+    WorkloadGenerator(int count) {
+        this.count = count;
+    }
+
+    // Applies one command-line option; false if the flag is not a generator option.
+    boolean option(String flag, String value) {
+        switch (flag) {
+            case "--seed":
+                seed = Long.parseLong(value);
+                return true;
+            case "--interarrival":
+                meanInterarrival = positive(Double.parseDouble(value));
+                return true;
+            case "--burst": {
+                String[] parts = value.split(":");
+                if (parts[0].equals("exp") && parts.length == 2) {
+                    pareto = false;
+                    burstMean = positive(Double.parseDouble(parts[1]));
+                } else if (parts[0].equals("pareto") && parts.length == 3) {
+                    pareto = true;
+                    paretoAlpha = positive(Double.parseDouble(parts[1]));
+                    paretoMin = positive(Double.parseDouble(parts[2]));
+                } else {
+                    throw new IllegalArgumentException("Bad burst distribution: " + value);
+                }
+                return true;
+            }
+            case "--priorities": {
+                String[] parts = value.split(",");
+                priorityWeights = new double[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    priorityWeights[i] = Double.parseDouble(parts[i]);
+                    if (priorityWeights[i] < 0)
+                        throw new IllegalArgumentException("Negative priority weight: " + value);
+                }
+                return true;
+            }
+            default:
+                return false;
+        }
+    }
+
+    private static double positive(double v) {
+        if (!(v > 0))
+            throw new IllegalArgumentException("Expected a positive number, got " + v);
+        return v;
+    }
+
+    // Restarts the sequence from the seed; next() calls this implicitly the first time.
+    WorkloadGenerator reset() {
+        random = new SplittableRandom(seed);
+        cumulative = new double[priorityWeights.length];
+        double total = 0;
+        for (int i = 0; i < priorityWeights.length; i++) {
+            total += priorityWeights[i];
+            cumulative[i] = total;
+        }
+        if (!(total > 0))
+            throw new IllegalArgumentException("Priority weights must not all be zero");
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        clock = 0;
+        produced = 0;
+        return this;
+    }
+
+    public boolean next() {
+        if (random == null)
+            reset();
+        if (produced == count)
+            return false;
+        produced++;
+
+        clock += -meanInterarrival * Math.log(1 - random.nextDouble());
+        arrival = clock >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) clock;
+
+        double b = pareto
+                ? paretoMin / Math.pow(1 - random.nextDouble(), 1 / paretoAlpha)
+                : -burstMean * Math.log(1 - random.nextDouble());
+        burst = (int) Math.max(1, Math.min(Math.round(b), Integer.MAX_VALUE / 4));
+
+        double u = random.nextDouble();
+        priority = 0;
+        while (priority < cumulative.length - 1 && u >= cumulative[priority]) {
+            priority++;
+        }
+        return true;
+    }
+
+    public int arrival() {
+        return arrival;
+    }
+
+    public int burst() {
+        return burst;
+    }
+
+    public int priority() {
+        return priority;
+    }
+}
@@ -0,0 +1,19 @@
+package all;
+
+/*
+ * What every allocator in this package offers, whatever it manages: fixed
+ * blocks (FreeBlockIndex), an address space split on demand (the Arenas),
+ * stripes shared by threads (ConcurrentArena) or a direct buffer (OffHeapArena).
+ * A handle is whatever the allocator hands out to identify an allocation: a
+ * block number, a start address or a byte offset.
+ *
+ * Simulations, replays and AllocatorBenchmark drive allocators only through
+ * this interface, so a new strategy needs nothing but an implementation.
+ */
+interface Allocator {
+    // Handle of an allocation of at least request units, or -1 if nothing fits.
+    int allocate(int request);
+
+    // Gives back an allocation; the handle must come from allocate and not be released yet.
+    void release(int handle);
+}
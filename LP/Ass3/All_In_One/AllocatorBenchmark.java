@@ -0,0 +1,361 @@
+package all;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.*;
+
+/*
+ * Microbenchmark of every Allocator over synthetic and recorded request traces,
+ * laid out like a JMH run: warmup iterations, then measurement iterations of
+ * at least --time ms each, each replaying the trace on fresh allocators back
+ * to back. Reports throughput (trace operations per second) with its standard
+ * deviation and GC count/time over the measurement, then one more replay in
+ * sample mode that times every allocate and release on its own for latency
+ * percentiles and samples fragmentation every SAMPLE_EVERY operations.
+ *
+ * Besides each strategy's Arena, the fixed-partition FreeBlockIndex of every
+ * fit runs on the same memory cut into whole partitions of --fixed-size units,
+ * "offheap" is an OffHeapArena with one-byte granules taking units as bytes,
+ * and "striped" a ConcurrentArena driven from one thread.
+ *
+ * A trace is an int per operation: > 0 allocates that many units, <= 0
+ * releases the live allocation at -value modulo the live count, so the same
+ * trace makes sense for any allocator. Synthetic shapes:
+ *
+ *   uniform  sizes 1..256, half allocations
+ *   small    sizes 1..64, half allocations
+ *   mixed    sizes 1..64, one in ten 256..8192, half allocations
+ *   phased   sizes 1..256, alternating 4096 operations of 3/4 allocations and
+ *            4096 of 3/4 releases, so holes open up between the survivors
+ */
+class AllocatorBenchmark {
+
+    static final String USAGE = "Usage: MemoryAllocationSimulation --bench [all|first,next,worst,best,buddy,slab,"
+            + "fixed-first,fixed-next,fixed-worst,fixed-best,offheap,striped]"
+            + " [--traces uniform,small,mixed,phased] [--trace file] [--ops n] [--blocks m] [--block-size units]"
+            + " [--min-split s] [--fixed-size units] [--warmup i] [--iterations i] [--time ms]";
+    static final int SAMPLE_EVERY = 1024;
+
+    static volatile long blackhole;
+
+    static class Score {
+        final String trace, allocator;
+        double opsPerSecond, error;
+        long gcCount, gcTime;
+        long[] allocateNanos, releaseNanos; // p50, p99, p99.9
+        double failed;
+        double externalAvg = -1, externalPeak, internalAvg; // externalAvg -1: not an Arena
+
+        Score(String trace, String allocator) {
+            this.trace = trace;
+            this.allocator = allocator;
+        }
+    }
+
+    private final int warmup, iterations;
+    private final long minNanos;
+
+    AllocatorBenchmark(int warmup, int iterations, long minMillis) {
+        this.warmup = warmup;
+        this.iterations = iterations;
+        this.minNanos = minMillis * 1_000_000;
+    }
+
+    Score measure(String traceName, String name, Supplier<Allocator> allocators, int[] trace) {
+        Score score = new Score(traceName, name);
+        for (int i = 0; i < warmup; i++) {
+            iteration(allocators, trace);
+        }
+
+        long[] gc = OffHeapArena.gc();
+        double[] rates = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            rates[i] = iteration(allocators, trace);
+        }
+        long[] gcAfter = OffHeapArena.gc();
+        score.gcCount = gcAfter[0] - gc[0];
+        score.gcTime = gcAfter[1] - gc[1];
+
+        double sum = 0, squares = 0;
+        for (double rate : rates) {
+            sum += rate;
+        }
+        score.opsPerSecond = sum / iterations;
+        for (double rate : rates) {
+            squares += (rate - score.opsPerSecond) * (rate - score.opsPerSecond);
+        }
+        score.error = iterations > 1 ? Math.sqrt(squares / (iterations - 1)) : 0;
+        sample(allocators.get(), trace, score);
+        return score;
+    }
+
+    // Replays until the iteration has lasted minNanos, not counting the time to
+    // build each fresh allocator; returns trace operations per second.
+    private double iteration(Supplier<Allocator> allocators, int[] trace) {
+        long spent = 0, ops = 0;
+        do {
+            long[] result = replay(allocators.get(), trace);
+            spent += result[0];
+            blackhole += result[1];
+            ops += trace.length;
+        } while (spent < minNanos);
+        return ops / (spent / 1e9);
+    }
+
+    // Returns {nanoseconds, failed allocations, allocations}.
+    static long[] replay(Allocator memory, int[] trace) {
+        int[] live = new int[64];
+        int count = 0;
+        long failed = 0, allocations = 0;
+        long begin = System.nanoTime();
+        for (int op : trace) {
+            if (op > 0) {
+                allocations++;
+                int handle = memory.allocate(op);
+                if (handle == -1) {
+                    failed++;
+                } else {
+                    if (count == live.length)
+                        live = Arrays.copyOf(live, count * 2);
+                    live[count++] = handle;
+                }
+            } else if (count > 0) {
+                int i = -op % count;
+                memory.release(live[i]);
+                live[i] = live[--count];
+            }
+        }
+        return new long[] { System.nanoTime() - begin, failed, allocations };
+    }
+
+    // The replay again with every call timed on its own, which is slower than
+    // replay() but gives the spread; fragmentation is sampled along the way.
+    private static void sample(Allocator memory, int[] trace, Score score) {
+        Arena arena = memory instanceof Arena ? (Arena) memory : null;
+        long[] allocate = new long[trace.length], release = new long[trace.length];
+        int[] live = new int[64];
+        int count = 0, allocations = 0, releases = 0, failed = 0, samples = 0;
+        double external = 0, internal = 0;
+        for (int k = 0; k < trace.length; k++) {
+            if (arena != null && k % SAMPLE_EVERY == 0) {
+                double e = arena.externalFragmentation();
+                external += e;
+                score.externalPeak = Math.max(score.externalPeak, e);
+                internal += arena.internalFragmentation();
+                samples++;
+            }
+            int op = trace[k];
+            if (op > 0) {
+                long begin = System.nanoTime();
+                int handle = memory.allocate(op);
+                allocate[allocations++] = System.nanoTime() - begin;
+                if (handle == -1) {
+                    failed++;
+                } else {
+                    if (count == live.length)
+                        live = Arrays.copyOf(live, count * 2);
+                    live[count++] = handle;
+                }
+            } else if (count > 0) {
+                int i = -op % count;
+                long begin = System.nanoTime();
+                memory.release(live[i]);
+                release[releases++] = System.nanoTime() - begin;
+                live[i] = live[--count];
+            }
+        }
+        score.allocateNanos = percentiles(allocate, allocations);
+        score.releaseNanos = percentiles(release, releases);
+        score.failed = allocations == 0 ? 0 : 100.0 * failed / allocations;
+        if (arena != null) {
+            score.externalAvg = 100 * external / samples;
+            score.externalPeak *= 100;
+            score.internalAvg = internal / samples;
+        }
+    }
+
+    private static long[] percentiles(long[] nanos, int n) {
+        if (n == 0)
+            return new long[3];
+        Arrays.sort(nanos, 0, n);
+        return new long[] { nanos[(int) (n * 0.5)], nanos[Math.min(n - 1, (int) (n * 0.99))],
+                nanos[Math.min(n - 1, (int) (n * 0.999))] };
+    }
+
+    static int[] synthetic(String shape, int length, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] trace = new int[length];
+        for (int i = 0; i < length; i++) {
+            boolean allocate;
+            int size;
+            switch (shape) {
+                case "uniform":
+                    allocate = random.nextBoolean();
+                    size = 1 + random.nextInt(256);
+                    break;
+                case "small":
+                    allocate = random.nextBoolean();
+                    size = 1 + random.nextInt(64);
+                    break;
+                case "mixed":
+                    allocate = random.nextBoolean();
+                    size = random.nextInt(10) == 0 ? 256 + random.nextInt(7937) : 1 + random.nextInt(64);
+                    break;
+                case "phased":
+                    allocate = random.nextInt(4) < ((i >> 12) % 2 == 0 ? 3 : 1);
+                    size = 1 + random.nextInt(256);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown trace shape " + shape);
+            }
+            trace[i] = allocate ? size : -random.nextInt(Integer.MAX_VALUE);
+        }
+        return trace;
+    }
+
+    // A recorded trace: one operation per line in the encoding above, blank
+    // lines and lines starting with # skipped.
+    static int[] load(String file) throws IOException {
+        int[] trace = new int[1024];
+        int n = 0;
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(file))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+                if (n == trace.length)
+                    trace = Arrays.copyOf(trace, n * 2);
+                trace[n++] = Integer.parseInt(line);
+            }
+        }
+        return Arrays.copyOf(trace, n);
+    }
+
+    static void cli(String[] args) {
+        List<String> names = new ArrayList<>(Arrays.asList("first", "next", "worst", "best", "buddy", "slab",
+                "fixed-first", "fixed-next", "fixed-worst", "fixed-best", "offheap", "striped"));
+        List<String> shapes = new ArrayList<>(Arrays.asList("uniform", "small", "mixed", "phased"));
+        String recorded = null;
+        int ops = 1_000_000, blockCount = 1, blockSize = 1 << 20, minSplit = 8, fixedSize = 256;
+        int warmup = 3, iterations = 5;
+        long millis = 500;
+        try {
+            int i = 1;
+            if (i < args.length && !args[i].startsWith("--")) {
+                String list = args[i++];
+                if (!list.equals("all"))
+                    names = Arrays.asList(list.split(","));
+            }
+            for (; i < args.length; i += 2) {
+                if (i + 1 >= args.length)
+                    throw new IllegalArgumentException(args[i]);
+                String flag = args[i], value = args[i + 1];
+                if (flag.equals("--traces")) {
+                    shapes = value.isEmpty() ? new ArrayList<>() : Arrays.asList(value.split(","));
+                } else if (flag.equals("--trace")) {
+                    recorded = value;
+                } else if (flag.equals("--ops")) {
+                    ops = (int) Double.parseDouble(value); // accepts 1e6
+                } else if (flag.equals("--blocks")) {
+                    blockCount = Integer.parseInt(value);
+                } else if (flag.equals("--block-size")) {
+                    blockSize = Integer.parseInt(value);
+                } else if (flag.equals("--min-split")) {
+                    minSplit = Integer.parseInt(value);
+                } else if (flag.equals("--fixed-size")) {
+                    fixedSize = Integer.parseInt(value);
+                } else if (flag.equals("--warmup")) {
+                    warmup = Integer.parseInt(value);
+                } else if (flag.equals("--iterations")) {
+                    iterations = Integer.parseInt(value);
+                } else if (flag.equals("--time")) {
+                    millis = Long.parseLong(value);
+                } else {
+                    throw new IllegalArgumentException(flag);
+                }
+            }
+            if (ops <= 0 || blockCount <= 0 || blockSize <= 0 || (long) blockCount * blockSize > Integer.MAX_VALUE - 1
+                    || minSplit < 1 || fixedSize < 1 || warmup < 0 || iterations <= 0)
+                throw new IllegalArgumentException();
+            for (String name : names) {
+                allocators(name, new int[] { 1 }, 1, 1);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        Map<String, int[]> traces = new LinkedHashMap<>();
+        try {
+            for (String shape : shapes) {
+                traces.put(shape, synthetic(shape, ops, 42));
+            }
+            if (recorded != null)
+                traces.put(Paths.get(recorded).getFileName().toString(), load(recorded));
+        } catch (IllegalArgumentException | IOException e) {
+            System.out.println(e.getMessage());
+            System.out.println(USAGE);
+            return;
+        }
+        int[] blocks = new int[blockCount];
+        Arrays.fill(blocks, blockSize);
+
+        AllocatorBenchmark bench = new AllocatorBenchmark(warmup, iterations, millis);
+        System.out.printf("# Warmup: %d iterations, Measurement: %d iterations, %d ms each, %d blocks of %d, "
+                + "min split %d, fixed partitions of %d\n", warmup, iterations, millis, blockCount, blockSize, minSplit,
+                fixedSize);
+        System.out.printf("%-10s %-12s %13s %11s %8s %8s %8s %8s %8s %8s %8s %8s %8s %8s %8s %6s\n", "Trace",
+                "Alloc", "ops/s", "error", "a.p50", "a.p99", "a.p999", "r.p50", "r.p99", "r.p999", "Failed%",
+                "ExtAvg%", "ExtPeak%", "IntAvg", "gc.count", "gc.ms");
+        for (Map.Entry<String, int[]> trace : traces.entrySet()) {
+            for (String name : names) {
+                print(bench.measure(trace.getKey(), name, allocators(name, blocks, minSplit, fixedSize),
+                        trace.getValue()));
+            }
+        }
+        System.out.println("a/r: allocate/release latency in ns. Ext and Int as in the strategy comparison.");
+    }
+
+    // Fresh allocators of one kind: a strategy's Arena; "fixed-" and a fit for
+    // its FreeBlockIndex over partitions of fixedSize units cut from the same
+    // memory; "offheap" for a first-fit OffHeapArena of the same number of
+    // bytes; or "striped" for a first-fit ConcurrentArena with thread caches.
+    static Supplier<Allocator> allocators(String name, int[] blocks, int minSplit, int fixedSize) {
+        long total = 0;
+        for (int size : blocks) {
+            total += size;
+        }
+        int capacity = (int) total;
+        if (name.equals("striped"))
+            return () -> new ConcurrentArena(blocks, MemoryAllocationSimulation.Strategy.FIRST_FIT, minSplit, 16, true);
+        if (name.equals("offheap"))
+            return () -> new OffHeapArena(capacity, 1, MemoryAllocationSimulation.Strategy.FIRST_FIT, minSplit);
+        boolean fixed = name.startsWith("fixed-");
+        String fit = fixed ? name.substring(6) : name;
+        for (MemoryAllocationSimulation.Strategy strategy : MemoryAllocationSimulation.Strategy.values()) {
+            if (!strategy.toString().replace("_FIT", "").equalsIgnoreCase(fit))
+                continue;
+            if (!fixed)
+                return () -> Arena.create(strategy, blocks, minSplit);
+            if (!strategy.toString().endsWith("_FIT"))
+                break; // buddy and slab have no fixed partitions
+            int[] partitions = new int[Math.max(1, capacity / fixedSize)];
+            Arrays.fill(partitions, fixedSize);
+            return () -> FreeBlockIndex.create(strategy, partitions);
+        }
+        throw new IllegalArgumentException("Unknown allocator " + name);
+    }
+
+    private static void print(Score s) {
+        String none = "-";
+        System.out.printf(Locale.ROOT, "%-10s %-12s %13.0f %11.0f %8d %8d %8d %8d %8d %8d %8.2f %8s %8s %8s %8d %6d\n",
+                s.trace, s.allocator, s.opsPerSecond, s.error,
+                s.allocateNanos[0], s.allocateNanos[1], s.allocateNanos[2],
+                s.releaseNanos[0], s.releaseNanos[1], s.releaseNanos[2], s.failed,
+                s.externalAvg < 0 ? none : String.format(Locale.ROOT, "%.2f", s.externalAvg),
+                s.externalAvg < 0 ? none : String.format(Locale.ROOT, "%.2f", s.externalPeak),
+                s.externalAvg < 0 ? none : String.format(Locale.ROOT, "%.1f", s.internalAvg), s.gcCount, s.gcTime);
+    }
+}
@@ -0,0 +1,125 @@
+package all;
+
+import java.io.*;
+import java.util.*;
+
+/*
+ * An allocator that carves requests out of the memory blocks instead of
+ * handing out whole blocks. Memory is one address space of sum(blocks) units
+ * with a fixed block starting at each edge, handles are start addresses, and
+ * every arena keeps the same books so strategies can be compared:
+ *
+ *   free       units not handed out
+ *   granted    units handed out, requested what was asked for; the difference
+ *              is internal fragmentation
+ *   holes      separate free extents; external fragmentation is the share of
+ *              free memory outside the largest of them
+ */
+abstract class Arena extends FreeBlockIndex {
+    final MemoryAllocationSimulation.Strategy strategy;
+    final int total;
+    final int[] edges; // start address of each fixed block
+    long free = 0, granted = 0, requested = 0;
+    int holes = 0, used = 0;
+
+    Arena(MemoryAllocationSimulation.Strategy strategy, int[] sizes) {
+        super(sizes);
+        this.strategy = strategy;
+        long sum = 0;
+        edges = new int[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] < 0)
+                throw new IllegalArgumentException("Block sizes must not be negative");
+            edges[i] = (int) sum;
+            sum += sizes[i];
+            if (sum > Integer.MAX_VALUE - 1)
+                throw new IllegalArgumentException("Total memory is too large");
+        }
+        total = (int) sum;
+        free = total;
+    }
+
+    // minSplit applies to the fit strategies, which split holes; buddy and slab
+    // round requests up to their own sizes instead.
+    static Arena create(MemoryAllocationSimulation.Strategy strategy, int[] sizes, int minSplit) {
+        switch (strategy) {
+            case BUDDY: return new BuddyAllocator(sizes);
+            case SLAB: return new SlabAllocator(sizes);
+            default: return new VariablePartition(strategy, sizes, minSplit);
+        }
+    }
+
+    abstract int largestHole();
+
+    // Walks the partitions and holes in address order.
+    abstract void forEachPartition(PartitionVisitor visitor);
+
+    interface PartitionVisitor {
+        void partition(int start, int size, boolean used);
+    }
+
+    // Share of free memory that is not in the largest hole, 0 when nothing is free.
+    double externalFragmentation() {
+        return free == 0 ? 0 : 1 - (double) largestHole() / free;
+    }
+
+    long internalFragmentation() {
+        return granted - requested;
+    }
+
+    boolean isEdge(int address) {
+        return Arrays.binarySearch(edges, address) >= 0;
+    }
+
+    // Fixed block (1-based) that an address belongs to.
+    int blockOf(int address) {
+        int i = Arrays.binarySearch(edges, address);
+        if (i < 0)
+            return -i - 1;
+        while (i + 1 < edges.length && edges[i + 1] == address) {
+            i++;
+        }
+        return i + 1;
+    }
+
+    // Fragmentation sampled once per time unit of a simulation.
+    static class History {
+        final MemoryAllocationSimulation.Strategy strategy;
+        int samples = 0, stalls = 0, maxHoles = 0;
+        double externalSum = 0, externalPeak = 0;
+        long internalSum = 0, internalPeak = 0;
+
+        History(MemoryAllocationSimulation.Strategy strategy) {
+            this.strategy = strategy;
+        }
+
+        // The same state for ticks time units; stalled: a process waited
+        // although the total free memory would hold it.
+        void sample(Arena memory, boolean stalled, int ticks) {
+            if (ticks <= 0)
+                return;
+            double external = memory.externalFragmentation();
+            long internal = memory.internalFragmentation();
+            samples += ticks;
+            externalSum += external * ticks;
+            externalPeak = Math.max(externalPeak, external);
+            internalSum += internal * ticks;
+            internalPeak = Math.max(internalPeak, internal);
+            maxHoles = Math.max(maxHoles, memory.holes);
+            if (stalled)
+                stalls += ticks;
+        }
+
+        static void header(PrintStream out) {
+            out.printf("%-10s %-10s %-10s %-10s %-10s %-10s %-8s\n",
+                    "Strategy", "ExtAvg%", "ExtPeak%", "IntAvg", "IntPeak", "MaxHoles", "Stalls");
+        }
+
+        void print(PrintStream out) {
+            out.printf("%-10s %-10.2f %-10.2f %-10.2f %-10d %-10d %-8d\n",
+                    strategy.toString().replace("_FIT", ""),
+                    samples == 0 ? 0 : 100 * externalSum / samples, 100 * externalPeak,
+                    samples == 0 ? 0 : (double) internalSum / samples, internalPeak, maxHoles, stalls);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package all;
+
+import java.util.*;
+
+/*
+ * Binary buddy system. Each memory block is cut into power-of-two arenas
+ * following the binary digits of its size (300 = 256 + 32 + 8 + 4), so no
+ * memory is lost, and every arena is split and merged on its own.
+ *
+ * A request is rounded up to the next power of two 2^k. The lowest free block
+ * of the smallest order >= k is taken and halved down to order k, the upper
+ * halves going back as free blocks. On release a block merges with its buddy,
+ * the other half of the same parent, for as long as that buddy is free and the
+ * parent still lies inside the arena.
+ *
+ * Free blocks of each order are one bit per address in a FreeBitmap, which
+ * finds its lowest set bit in a few word operations, so allocate and release
+ * are O(orders).
+ */
+class BuddyAllocator extends Arena {
+    private final int[] arenaBase;
+    private final byte[] arenaOrder;
+    private final FreeBitmap[] bits; // bits[k] has a bit at the start of each free 2^k block
+    private final byte[] order;      // order + 1 of the used block starting at each address
+    private final int[] asked;
+    final int maxOrder;
+
+    BuddyAllocator(int[] sizes) {
+        super(MemoryAllocationSimulation.Strategy.BUDDY, sizes);
+        int arenas = 0, top = 0;
+        for (int size : sizes) {
+            arenas += Integer.bitCount(size);
+            if (size > 0)
+                top = Math.max(top, 31 - Integer.numberOfLeadingZeros(size));
+        }
+        maxOrder = top;
+        arenaBase = new int[arenas];
+        arenaOrder = new byte[arenas];
+        bits = new FreeBitmap[maxOrder + 1];
+        for (int k = 0; k <= maxOrder; k++) {
+            bits[k] = new FreeBitmap(total);
+        }
+        order = new byte[Math.max(total, 1)];
+        asked = new int[Math.max(total, 1)];
+
+        int n = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            int a = edges[i];
+            for (int k = 30; k >= 0; k--) {
+                if ((sizes[i] & (1 << k)) != 0) {
+                    arenaBase[n] = a;
+                    arenaOrder[n++] = (byte) k;
+                    bits[k].set(a);
+                    holes++;
+                    a += 1 << k;
+                }
+            }
+        }
+    }
+
+    public int allocate(int request) {
+        int need = Math.max(1, request);
+        int k = need == 1 ? 0 : 32 - Integer.numberOfLeadingZeros(need - 1);
+        int j = k;
+        while (j <= maxOrder && bits[j].isEmpty()) {
+            j++;
+        }
+        if (j > maxOrder)
+            return -1;
+        int a = bits[j].first();
+        bits[j].clear(a);
+        holes--;
+        while (j > k) {
+            j--;
+            bits[j].set(a + (1 << j));
+            holes++;
+        }
+        order[a] = (byte) (k + 1);
+        asked[a] = request;
+        free -= 1 << k;
+        granted += 1 << k;
+        requested += request;
+        used++;
+        return a;
+    }
+
+    public void release(int a) {
+        int k = order[a] - 1;
+        if (k < 0)
+            throw new IllegalStateException("No block in use at " + a);
+        order[a] = 0;
+        free += 1 << k;
+        granted -= 1 << k;
+        requested -= asked[a];
+        used--;
+
+        int arena = Arrays.binarySearch(arenaBase, a);
+        if (arena < 0)
+            arena = -arena - 2;
+        int base = arenaBase[arena];
+        while (k < arenaOrder[arena]) {
+            int buddy = base + ((a - base) ^ (1 << k));
+            if (!bits[k].get(buddy))
+                break;
+            bits[k].clear(buddy);
+            holes--;
+            a = Math.min(a, buddy);
+            k++;
+        }
+        bits[k].set(a);
+        holes++;
+    }
+
+    int largestHole() {
+        for (int k = maxOrder; k >= 0; k--) {
+            if (!bits[k].isEmpty())
+                return 1 << k;
+        }
+        return 0;
+    }
+
+    void forEachPartition(PartitionVisitor visitor) {
+        for (int a = 0; a < total; ) {
+            int k = order[a] - 1;
+            boolean inUse = k >= 0;
+            if (!inUse) {
+                k = maxOrder;
+                while (!bits[k].get(a)) {
+                    k--;
+                }
+            }
+            visitor.partition(a, 1 << k, inUse);
+            a += 1 << k;
+        }
+    }
+}
+
+/*
+ * Bit set that also finds its lowest set bit quickly: above the bits sit
+ * summary levels where each bit says whether a word below is non-zero, up to a
+ * single word, so first() reads one word per level.
+ */
+class FreeBitmap {
+    private final long[][] levels; // levels[0] holds the bits themselves
+
+    FreeBitmap(int size) {
+        List<long[]> list = new ArrayList<>();
+        int words = Math.max(1, (size + 63) >>> 6);
+        list.add(new long[words]);
+        while (words > 1) {
+            words = (words + 63) >>> 6;
+            list.add(new long[words]);
+        }
+        levels = list.toArray(new long[0][]);
+    }
+
+    boolean get(int i) {
+        return (levels[0][i >>> 6] & (1L << i)) != 0;
+    }
+
+    void set(int i) {
+        for (long[] level : levels) {
+            long word = level[i >>> 6];
+            level[i >>> 6] = word | (1L << i);
+            if (word != 0)
+                return;
+            i >>>= 6;
+        }
+    }
+
+    void clear(int i) {
+        for (long[] level : levels) {
+            long word = level[i >>> 6] & ~(1L << i);
+            level[i >>> 6] = word;
+            if (word != 0)
+                return;
+            i >>>= 6;
+        }
+    }
+
+    boolean isEmpty() {
+        return levels[levels.length - 1][0] == 0;
+    }
+
+    // Lowest set bit, or -1 if none.
+    int first() {
+        if (isEmpty())
+            return -1;
+        int i = 0;
+        for (int l = levels.length - 1; l >= 0; l--) {
+            i = (i << 6) + Long.numberOfTrailingZeros(levels[l][i]);
+        }
+        return i;
+    }
+}
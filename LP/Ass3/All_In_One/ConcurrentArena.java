@@ -0,0 +1,281 @@
+package all;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/*
+ * Thread-safe allocator over the memory blocks built from the single-threaded
+ * Arenas by lock striping: memory is cut into equal address ranges (stripes),
+ * each an Arena of its own strategy behind its own lock. A thread allocates in
+ * its home stripe and moves on to the next ones only when that stripe is full,
+ * so threads with different homes never touch the same lock. A block cut by a
+ * stripe boundary becomes two pieces that never merge.
+ *
+ * With caching on, each thread also keeps up to CACHED freed handles per size
+ * class and serves requests of that class from them without taking any lock.
+ * For that every request is rounded up to its size class (SlabAllocator's
+ * classes, at most 25% over), so any cached handle of a class fits any request
+ * of it. Handles in a cache still count as used in the stripes; flush() hands
+ * the calling thread's back.
+ *
+ * acquisitions counts stripe lock acquisitions and contended the ones that
+ * found the lock held and had to wait.
+ */
+class ConcurrentArena implements Allocator {
+    static final int CACHED = 32;
+
+    private final Arena[] stripes;
+    private final ReentrantLock[] locks;
+    private final int span;
+    private final byte[] classAt; // size class + 1 at the start of each handle
+    private final ThreadLocal<Cache> caches;
+    private final AtomicInteger homes = new AtomicInteger();
+    final LongAdder acquisitions = new LongAdder(), contended = new LongAdder(), cacheHits = new LongAdder();
+
+    ConcurrentArena(int[] sizes, MemoryAllocationSimulation.Strategy strategy, int minSplit, int stripeCount,
+            boolean caching) {
+        long sum = 0;
+        for (int size : sizes) {
+            sum += size;
+        }
+        if (stripeCount <= 0 || sum == 0 || sum > Integer.MAX_VALUE - 1)
+            throw new IllegalArgumentException("Need at least one stripe and some memory");
+        span = (int) ((sum + stripeCount - 1) / stripeCount);
+        stripes = new Arena[stripeCount];
+        locks = new ReentrantLock[stripeCount];
+        classAt = new byte[(int) sum];
+
+        // Cut the blocks at every multiple of span.
+        int block = 0, left = sizes.length > 0 ? sizes[0] : 0;
+        for (int s = 0; s < stripeCount; s++) {
+            List<Integer> pieces = new ArrayList<>();
+            int room = span;
+            while (room > 0 && block < sizes.length) {
+                int piece = Math.min(room, left);
+                if (piece > 0)
+                    pieces.add(piece);
+                room -= piece;
+                left -= piece;
+                if (left == 0 && ++block < sizes.length)
+                    left = sizes[block];
+            }
+            int[] stripe = pieces.stream().mapToInt(Integer::intValue).toArray();
+            stripes[s] = Arena.create(strategy, stripe.length == 0 ? new int[] { 0 } : stripe, minSplit);
+            locks[s] = new ReentrantLock();
+        }
+        caches = caching ? ThreadLocal.withInitial(() -> new Cache(homes.getAndIncrement() % stripeCount)) : null;
+    }
+
+    // Handle of at least request units, or -1 if no stripe has room.
+    public int allocate(int request) {
+        int c = SlabAllocator.classOf(Math.max(1, request));
+        long size = SlabAllocator.classSize(c);
+        if (size > span)
+            return -1;
+        int home;
+        if (caches != null) {
+            Cache cache = caches.get();
+            int h = cache.pop(c);
+            if (h != -1) {
+                cacheHits.increment();
+                return h;
+            }
+            home = cache.home;
+        } else {
+            home = (int) (Thread.currentThread().getId() % stripes.length);
+        }
+        for (int k = 0; k < stripes.length; k++) {
+            int s = (home + k) % stripes.length;
+            int h;
+            lock(s);
+            try {
+                h = stripes[s].allocate((int) size);
+            } finally {
+                locks[s].unlock();
+            }
+            if (h != -1) {
+                h += s * span;
+                classAt[h] = (byte) (c + 1);
+                return h;
+            }
+        }
+        return -1;
+    }
+
+    public void release(int handle) {
+        int c = classAt[handle] - 1;
+        if (c < 0)
+            throw new IllegalArgumentException("No allocation at " + handle);
+        if (caches != null && caches.get().push(c, handle))
+            return;
+        giveBack(handle);
+    }
+
+    // Returns the calling thread's cached handles to their stripes.
+    void flush() {
+        if (caches == null)
+            return;
+        Cache cache = caches.get();
+        for (int c = 0; c < cache.handles.length; c++) {
+            for (int i = 0; i < cache.count[c]; i++) {
+                giveBack(cache.handles[c][i]);
+            }
+            cache.count[c] = 0;
+        }
+    }
+
+    private void giveBack(int handle) {
+        classAt[handle] = 0;
+        int s = handle / span;
+        lock(s);
+        try {
+            stripes[s].release(handle - s * span);
+        } finally {
+            locks[s].unlock();
+        }
+    }
+
+    private void lock(int s) {
+        acquisitions.increment();
+        if (!locks[s].tryLock()) {
+            contended.increment();
+            locks[s].lock();
+        }
+    }
+
+    // Sums over the stripes; only exact while no other thread is allocating.
+    long free() {
+        long free = 0;
+        for (int s = 0; s < stripes.length; s++) {
+            lock(s);
+            try {
+                free += stripes[s].free;
+            } finally {
+                locks[s].unlock();
+            }
+        }
+        return free;
+    }
+
+    private static class Cache {
+        final int home;
+        final int[][] handles = new int[SlabAllocator.CLASSES][];
+        final int[] count = new int[SlabAllocator.CLASSES];
+
+        Cache(int home) {
+            this.home = home;
+        }
+
+        int pop(int c) {
+            return count[c] == 0 ? -1 : handles[c][--count[c]];
+        }
+
+        boolean push(int c, int handle) {
+            if (handles[c] == null)
+                handles[c] = new int[CACHED];
+            if (count[c] == CACHED)
+                return false;
+            handles[c][count[c]++] = handle;
+            return true;
+        }
+    }
+
+    static final String USAGE = "Usage: MemoryAllocationSimulation --concurrent [max-threads] [ops] [stripes]";
+
+    // For every strategy and 1, 2, 4, ... max-threads threads: each thread
+    // allocates 1..128 units and frees a random one of its (at most 256) live
+    // handles half of the time. Runs behind a single lock, striped, and
+    // striped with thread caches.
+    static void bench(String[] args) throws InterruptedException {
+        int maxThreads, ops, stripeCount;
+        try {
+            maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+            ops = args.length > 2 ? Integer.parseInt(args[2]) : 2_000_000;
+            stripeCount = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+            if (maxThreads <= 0 || ops <= 0 || stripeCount <= 0)
+                throw new IllegalArgumentException();
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE);
+            return;
+        }
+        int[] blocks = new int[64];
+        Arrays.fill(blocks, 1 << 16);
+
+        System.out.printf("%-8s %-8s %-13s %-9s %-13s %-9s %-13s %-10s %-8s\n", "Strategy", "Threads",
+                "1-lock ops/s", "Contend%", "Striped", "Contend%", "+Cache", "CacheHit%", "Failed%");
+        for (MemoryAllocationSimulation.Strategy strategy : MemoryAllocationSimulation.Strategy.values()) {
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                ConcurrentArena single = new ConcurrentArena(blocks, strategy, 8, 1, false);
+                long[] one = run(single, threads, ops);
+                ConcurrentArena striped = new ConcurrentArena(blocks, strategy, 8, stripeCount, false);
+                long[] many = run(striped, threads, ops);
+                ConcurrentArena cached = new ConcurrentArena(blocks, strategy, 8, stripeCount, true);
+                long[] local = run(cached, threads, ops);
+                System.out.printf("%-8s %-8d %-13.0f %-9.2f %-13.0f %-9.2f %-13.0f %-10.2f %-8.2f\n",
+                        strategy.toString().replace("_FIT", ""), threads,
+                        ops * 1e9 / one[0], percent(single.contended.sum(), single.acquisitions.sum()),
+                        ops * 1e9 / many[0], percent(striped.contended.sum(), striped.acquisitions.sum()),
+                        ops * 1e9 / local[0], percent(cached.cacheHits.sum(), local[1]),
+                        percent(one[2] + many[2] + local[2], one[1] + many[1] + local[1]));
+                if (threads < maxThreads && threads * 2 > maxThreads)
+                    threads = maxThreads / 2;
+            }
+        }
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : 100.0 * part / whole;
+    }
+
+    // Returns {nanoseconds, allocations, failed allocations}.
+    private static long[] run(ConcurrentArena arena, int threads, int ops) throws InterruptedException {
+        LongAdder allocations = new LongAdder(), failed = new LongAdder();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads), go = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            done.add(workers.submit(() -> {
+                SplittableRandom random = new SplittableRandom(id);
+                int[] live = new int[256];
+                int count = 0;
+                ready.countDown();
+                go.await();
+                for (int i = id; i < ops; i += threads) {
+                    if (count > 0 && (count == live.length || random.nextBoolean())) {
+                        int k = random.nextInt(count--);
+                        arena.release(live[k]);
+                        live[k] = live[count];
+                        continue;
+                    }
+                    allocations.increment();
+                    int h = arena.allocate(1 + random.nextInt(128));
+                    if (h == -1)
+                        failed.increment();
+                    else
+                        live[count++] = h;
+                }
+                for (int k = 0; k < count; k++) {
+                    arena.release(live[k]);
+                }
+                arena.flush();
+                return null;
+            }));
+        }
+        ready.await();
+        long begin = System.nanoTime();
+        go.countDown();
+        try {
+            for (Future<?> f : done) {
+                f.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("concurrent run failed", e.getCause());
+        } finally {
+            workers.shutdown();
+        }
+        return new long[] { System.nanoTime() - begin, allocations.sum(), failed.sum() };
+    }
+}
@@ -0,0 +1,253 @@
+package all;
+
+import java.util.*;
+
+/*
+ * Index over the fixed memory blocks that answers "which free block does this
+ * strategy pick for a request of size r" in O(log m) instead of a scan of every
+ * block, and picks the same block the scans do:
+ *
+ *   FIRST_FIT  segment tree of the largest free size under each node; descend
+ *              towards the leftmost leaf that fits.
+ *   NEXT_FIT   the same tree, searched from the rover first and then wrapping.
+ *   WORST_FIT  indexed max-heap of the free blocks by (size, lower index first).
+ *   BEST_FIT   blocks sorted once by (size, index), with a segment tree over
+ *              that order counting free blocks; binary search the first size
+ *              that fits, then find the first free block from there.
+ *
+ * allocate() marks the chosen block occupied; release() frees it again.
+ */
+abstract class FreeBlockIndex implements Allocator {
+    final int[] sizes;
+
+    FreeBlockIndex(int[] sizes) {
+        this.sizes = sizes;
+    }
+
+    static FreeBlockIndex create(MemoryAllocationSimulation.Strategy strategy, int[] sizes) {
+        switch (strategy) {
+            case FIRST_FIT: return new FirstFit(sizes);
+            case NEXT_FIT: return new NextFit(sizes);
+            case WORST_FIT: return new WorstFit(sizes);
+            case BEST_FIT: return new BestFit(sizes);
+            default: return Arena.create(strategy, sizes, 1); // buddy and slab split blocks themselves
+        }
+    }
+
+    // The block chosen for the request, now occupied, or -1 if none fits.
+    public abstract int allocate(int request);
+
+    public abstract void release(int block);
+
+    static class FirstFit extends FreeBlockIndex {
+        final int leaves;
+        final int[] max; // largest free size in each subtree, MIN_VALUE if none
+
+        FirstFit(int[] sizes) {
+            super(sizes);
+            leaves = Integer.highestOneBit(Math.max(1, sizes.length - 1)) << 1;
+            max = new int[2 * leaves];
+            Arrays.fill(max, Integer.MIN_VALUE);
+            for (int i = 0; i < sizes.length; i++) {
+                max[leaves + i] = sizes[i];
+            }
+            for (int n = leaves - 1; n > 0; n--) {
+                max[n] = Math.max(max[2 * n], max[2 * n + 1]);
+            }
+        }
+
+        public int allocate(int request) {
+            int block = firstFrom(0, request);
+            if (block != -1)
+                set(block, Integer.MIN_VALUE);
+            return block;
+        }
+
+        public void release(int block) {
+            set(block, sizes[block]);
+        }
+
+        void set(int block, int value) {
+            int n = leaves + block;
+            max[n] = value;
+            for (n >>= 1; n > 0; n >>= 1) {
+                max[n] = Math.max(max[2 * n], max[2 * n + 1]);
+            }
+        }
+
+        // Leftmost block at or after from with a free size of at least request.
+        int firstFrom(int from, int request) {
+            return firstFrom(1, 0, leaves, from, request);
+        }
+
+        private int firstFrom(int n, int lo, int hi, int from, int request) {
+            if (hi <= from || max[n] < request)
+                return -1;
+            if (n >= leaves)
+                return n - leaves;
+            int mid = (lo + hi) >>> 1;
+            int left = firstFrom(2 * n, lo, mid, from, request);
+            return left != -1 ? left : firstFrom(2 * n + 1, mid, hi, from, request);
+        }
+    }
+
+    // The search resumes at the block after the last one allocated and wraps once.
+    static class NextFit extends FirstFit {
+        int rover = 0;
+
+        NextFit(int[] sizes) {
+            super(sizes);
+        }
+
+        public int allocate(int request) {
+            int block = firstFrom(rover, request);
+            if (block == -1)
+                block = firstFrom(0, request);
+            if (block != -1) {
+                set(block, Integer.MIN_VALUE);
+                rover = (block + 1) % sizes.length;
+            }
+            return block;
+        }
+    }
+
+    static class WorstFit extends FreeBlockIndex {
+        final int[] heap, pos; // pos[block] is its heap index, -1 when occupied
+        int count;
+
+        WorstFit(int[] sizes) {
+            super(sizes);
+            heap = new int[sizes.length];
+            pos = new int[sizes.length];
+            for (int i = 0; i < sizes.length; i++) {
+                heap[i] = i;
+                pos[i] = i;
+            }
+            count = sizes.length;
+            for (int i = count / 2 - 1; i >= 0; i--) {
+                down(i);
+            }
+        }
+
+        private boolean above(int a, int b) {
+            return sizes[a] > sizes[b] || (sizes[a] == sizes[b] && a < b);
+        }
+
+        public int allocate(int request) {
+            if (count == 0 || sizes[heap[0]] < request)
+                return -1;
+            int block = heap[0];
+            pos[block] = -1;
+            if (--count > 0) {
+                heap[0] = heap[count];
+                pos[heap[0]] = 0;
+                down(0);
+            }
+            return block;
+        }
+
+        public void release(int block) {
+            heap[count] = block;
+            pos[block] = count;
+            up(count++);
+        }
+
+        private void up(int i) {
+            int b = heap[i];
+            while (i > 0 && above(b, heap[(i - 1) / 2])) {
+                heap[i] = heap[(i - 1) / 2];
+                pos[heap[i]] = i;
+                i = (i - 1) / 2;
+            }
+            heap[i] = b;
+            pos[b] = i;
+        }
+
+        private void down(int i) {
+            int b = heap[i];
+            while (2 * i + 1 < count) {
+                int c = 2 * i + 1;
+                if (c + 1 < count && above(heap[c + 1], heap[c]))
+                    c++;
+                if (!above(heap[c], b))
+                    break;
+                heap[i] = heap[c];
+                pos[heap[i]] = i;
+                i = c;
+            }
+            heap[i] = b;
+            pos[b] = i;
+        }
+    }
+
+    static class BestFit extends FreeBlockIndex {
+        final int[] order, rank, sorted; // sorted[r] = sizes[order[r]]
+        final int leaves;
+        final int[] free; // free blocks under each node of the rank tree
+
+        BestFit(int[] sizes) {
+            super(sizes);
+            int m = sizes.length;
+            long[] keys = new long[m];
+            for (int i = 0; i < m; i++) {
+                keys[i] = ((long) sizes[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+            order = new int[m];
+            rank = new int[m];
+            sorted = new int[m];
+            for (int r = 0; r < m; r++) {
+                order[r] = (int) keys[r];
+                rank[order[r]] = r;
+                sorted[r] = sizes[order[r]];
+            }
+            leaves = Integer.highestOneBit(Math.max(1, m - 1)) << 1;
+            free = new int[2 * leaves];
+            for (int r = 0; r < m; r++) {
+                free[leaves + r] = 1;
+            }
+            for (int n = leaves - 1; n > 0; n--) {
+                free[n] = free[2 * n] + free[2 * n + 1];
+            }
+        }
+
+        public int allocate(int request) {
+            // First rank whose size fits, then the first free rank from there.
+            int lo = 0, hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] < request)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            int r = firstFree(1, 0, leaves, lo);
+            if (r == -1)
+                return -1;
+            set(r, 0);
+            return order[r];
+        }
+
+        public void release(int block) {
+            set(rank[block], 1);
+        }
+
+        private void set(int r, int value) {
+            int n = leaves + r;
+            free[n] = value;
+            for (n >>= 1; n > 0; n >>= 1) {
+                free[n] = free[2 * n] + free[2 * n + 1];
+            }
+        }
+
+        private int firstFree(int n, int lo, int hi, int from) {
+            if (hi <= from || free[n] == 0)
+                return -1;
+            if (n >= leaves)
+                return n - leaves;
+            int mid = (lo + hi) >>> 1;
+            int left = firstFree(2 * n, lo, mid, from);
+            return left != -1 ? left : firstFree(2 * n + 1, mid, hi, from);
+        }
+    }
+}
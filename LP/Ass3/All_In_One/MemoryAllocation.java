@@ -1,5 +1,12 @@
+package all;
+
 import java.util.*;
 
+/*
+ * One-shot placement of every process into the memory blocks, one strategy at
+ * a time, on the same Arenas as MemoryAllocationSimulation: nothing is ever
+ * released, and a process that fits nowhere is not allocated.
+ */
 public class MemoryAllocation {
 
     public static void main(String[] args) {
@@ -36,103 +43,47 @@ public class MemoryAllocation {
             if (choice == 5)
                 break;
 
-            // Create fresh copy of blocks for each simulation
-            int[] blocks = blockSize.clone();
-            int[] allocation = new int[numProcesses];
-            Arrays.fill(allocation, -1);
-
+            MemoryAllocationSimulation.Strategy strategy;
             switch (choice) {
                 case 1:
-                    firstFit(blocks, processSize, allocation);
+                    strategy = MemoryAllocationSimulation.Strategy.FIRST_FIT;
                     break;
                 case 2:
-                    bestFit(blocks, processSize, allocation);
+                    strategy = MemoryAllocationSimulation.Strategy.BEST_FIT;
                     break;
                 case 3:
-                    worstFit(blocks, processSize, allocation);
+                    strategy = MemoryAllocationSimulation.Strategy.WORST_FIT;
                     break;
                 case 4:
-                    nextFit(blocks, processSize, allocation);
+                    strategy = MemoryAllocationSimulation.Strategy.NEXT_FIT;
                     break;
                 default:
                     System.out.println("Invalid choice!");
                     continue;
             }
 
-            displayResults(processSize, blockSize, blocks, allocation);
-        }
-        sc.close();
-    }
-
-    // First Fit: Allocate first block that is large enough
-    static void firstFit(int[] blocks, int[] process, int[] allocation) {
-        for (int i = 0; i < process.length; i++) {
-            for (int j = 0; j < blocks.length; j++) {
-                if (blocks[j] >= process[i]) {
-                    allocation[i] = j;
-                    blocks[j] -= process[i];
-                    break;
-                }
-            }
-        }
-    }
-
-    static void bestFit(int[] blocks, int[] process, int[] allocation) {
-        for (int i = 0; i < process.length; i++) {
-            int bestIdx = -1;
-            int minSize = Integer.MAX_VALUE;
-
-            for (int j = 0; j < blocks.length; j++) {
-                if (blocks[j] >= process[i] && blocks[j] < minSize) {
-                    bestIdx = j;
-                    minSize = blocks[j];
-                }
-            }
-
-            if (bestIdx != -1) {
-                allocation[i] = bestIdx;
-                blocks[bestIdx] -= process[i];
-            }
-        }
-    }
-
-    // Worst Fit: Allocate largest available block
-    static void worstFit(int[] blocks, int[] process, int[] allocation) {
-        for (int i = 0; i < process.length; i++) {
-            int worstIdx = -1;
-            int maxSize = -1;
-
-            for (int j = 0; j < blocks.length; j++) {
-                if (blocks[j] >= process[i] && blocks[j] > maxSize) {
-                    worstIdx = j;
-                    maxSize = blocks[j];
-                }
+            // Each process takes only what it asks for, so the rest of its
+            // block stays free for the next ones.
+            Arena memory = Arena.create(strategy, blockSize, 1);
+            int[] allocation = new int[numProcesses];
+            for (int i = 0; i < numProcesses; i++) {
+                int start = memory.allocate(processSize[i]);
+                allocation[i] = start == -1 ? -1 : memory.blockOf(start) - 1;
             }
 
-            if (worstIdx != -1) {
-                allocation[i] = worstIdx;
-                blocks[worstIdx] -= process[i];
-            }
+            displayResults(processSize, blockSize, remaining(memory, numBlocks), allocation);
         }
+        sc.close();
     }
 
-    static void nextFit(int[] blocks, int[] process, int[] allocation) {
-        int j = 0;
-
-        for (int i = 0; i < process.length; i++) {
-            int count = 0;
-
-            while (count < blocks.length) {
-                if (blocks[j] >= process[i]) {
-                    allocation[i] = j;
-                    blocks[j] -= process[i];
-                    j = (j + 1) % blocks.length;
-                    break;
-                }
-                j = (j + 1) % blocks.length;
-                count++;
-            }
-        }
+    // Free units left in each block.
+    static int[] remaining(Arena memory, int numBlocks) {
+        int[] blocks = new int[numBlocks];
+        memory.forEachPartition((start, size, used) -> {
+            if (!used)
+                blocks[memory.blockOf(start) - 1] += size;
+        });
+        return blocks;
     }
 
     // Display allocation results
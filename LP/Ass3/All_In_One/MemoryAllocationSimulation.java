@@ -1,5 +1,6 @@
 package all;
 
+import java.io.*;
 import java.util.*;
 
 class Process {
@@ -27,37 +28,57 @@ class Process {
 
 public class MemoryAllocationSimulation {
 
-    enum Strategy {
+    public enum Strategy {
         FIRST_FIT,
         NEXT_FIT,
         WORST_FIT,
-        BEST_FIT
+        BEST_FIT,
+        BUDDY,
+        SLAB
     }
 
-    public static void main(String[] args) throws InterruptedException {
-        Scanner sc = new Scanner(System.in);
+    static final String USAGE = "Usage: MemoryAllocationSimulation [--variable [min-split]]\n"
+            + "       MemoryAllocationSimulation --offheap [capacity-mb] [threads] [ops]\n"
+            + "       MemoryAllocationSimulation --concurrent [max-threads] [ops] [stripes]\n"
+            + "       MemoryAllocationSimulation --bench [allocators] [options]\n"
+            + "       MemoryAllocationSimulation --replay file [strategies] [options]\n"
+            + "       MemoryAllocationSimulation --record file [shape] [events]";
 
-        System.out.print("Enter number of memory blocks: ");
-        int m = sc.nextInt();
-        int[] memoryBlocks = new int[m];
-        for (int i = 0; i < m; i++) {
-            System.out.print("Enter size of memory block " + (i + 1) + ": ");
-            memoryBlocks[i] = sc.nextInt();
+    public static void main(String[] args) throws InterruptedException {
+        // With --variable blocks are split and coalesced instead of used whole;
+        // leftovers below min-split (default 8) stay with the request.
+        if (args.length > 0 && args[0].equals("--offheap")) {
+            OffHeapArena.bench(args);
+            return;
         }
-
-        System.out.print("Enter number of processes: ");
-        int n = sc.nextInt();
-        List<Process> processes = new ArrayList<>();
-        for (int i = 0; i < n; i++) {
-            System.out.print("Enter arrival time for Process P" + (i + 1) + ": ");
-            int at = sc.nextInt();
-            System.out.print("Enter burst time for Process P" + (i + 1) + ": ");
-            int bt = sc.nextInt();
-            System.out.print("Enter memory required for Process P" + (i + 1) + ": ");
-            int mem = sc.nextInt();
-            processes.add(new Process(i + 1, at, bt, mem));
+        if (args.length > 0 && args[0].equals("--concurrent")) {
+            ConcurrentArena.bench(args);
+            return;
         }
-        processes.sort(Comparator.comparingInt(p -> p.arrivalTime));
+        if (args.length > 0 && args[0].equals("--bench")) {
+            AllocatorBenchmark.cli(args);
+            return;
+        }
+        if (args.length > 0 && (args[0].equals("--replay") || args[0].equals("--record"))) {
+            TraceReplay.cli(args);
+            return;
+        }
+        int minSplit = 0;
+        if (args.length > 0) {
+            try {
+                if (!args[0].equals("--variable") || args.length > 2)
+                    throw new IllegalArgumentException();
+                minSplit = args.length == 2 ? Integer.parseInt(args[1]) : 8;
+                if (minSplit < 1)
+                    throw new IllegalArgumentException();
+            } catch (IllegalArgumentException e) {
+                System.out.println(USAGE);
+                return;
+            }
+        }
+        Scanner sc = new Scanner(System.in);
+        int[] memoryBlocks = readBlocks(sc);
+        List<Process> processes = readProcesses(sc);
 
         while (true) {
 
@@ -66,12 +87,19 @@ public class MemoryAllocationSimulation {
             System.out.println("2. Next Fit");
             System.out.println("3. Worst Fit");
             System.out.println("4. Best Fit");
-            System.out.println("5. Exit");
-            System.out.print("Enter choice [1-5]: ");
+            System.out.println("5. Buddy System");
+            System.out.println("6. Slab Allocator");
+            System.out.println("7. Compare all strategies");
+            System.out.println("8. Exit");
+            System.out.print("Enter choice [1-8]: ");
             int choice = sc.nextInt();
-            if (choice == 5) {
+            if (choice == 8) {
                 break;
             }
+            if (choice == 7) {
+                compare(processes, memoryBlocks, minSplit > 0 ? minSplit : 8);
+                continue;
+            }
             Strategy strat;
             switch (choice) {
                 case 1:
@@ -86,180 +114,374 @@ public class MemoryAllocationSimulation {
                 case 4:
                     strat = Strategy.BEST_FIT;
                     break;
+                case 5:
+                    strat = Strategy.BUDDY;
+                    break;
+                case 6:
+                    strat = Strategy.SLAB;
+                    break;
                 default:
                     System.out.println("Invalid choice, please try again.");
                     continue;
             }
 
-            for (Process p : processes) {
-                p.remainingTime = p.burstTime;
-                p.startTime = -1;
-                p.completionTime = 0;
-                p.waitingTime = 0;
-                p.turnaroundTime = 0;
-                p.allocatedBlock = -1;
-                p.isCompleted = false;
-                p.isAllocated = false;
-            }
-
-            simulate(processes, memoryBlocks, strat);
+            reset(processes);
+            simulate(processes, memoryBlocks, strat, minSplit, System.out, true);
         }
         sc.close();
     }
 
-    private static void simulate(List<Process> processes, int[] memoryBlocks, Strategy strat)
+    // The single-strategy programs (First_Fit, Next_Fit, Worst_Fit, Best_Fit):
+    // one printed run of the strategy with whole fixed blocks.
+    public static void runOne(Strategy strat) throws InterruptedException {
+        Scanner sc = new Scanner(System.in);
+        int[] memoryBlocks = readBlocks(sc);
+        List<Process> processes = readProcesses(sc);
+        simulate(processes, memoryBlocks, strat, 0, System.out, true);
+        sc.close();
+    }
+
+    private static int[] readBlocks(Scanner sc) {
+        System.out.print("Enter number of memory blocks: ");
+        int m = sc.nextInt();
+        int[] memoryBlocks = new int[m];
+        for (int i = 0; i < m; i++) {
+            System.out.print("Enter size of memory block " + (i + 1) + ": ");
+            memoryBlocks[i] = sc.nextInt();
+        }
+        return memoryBlocks;
+    }
+
+    // In arrival order.
+    private static List<Process> readProcesses(Scanner sc) {
+        System.out.print("Enter number of processes: ");
+        int n = sc.nextInt();
+        List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            System.out.print("Enter arrival time for Process P" + (i + 1) + ": ");
+            int at = sc.nextInt();
+            System.out.print("Enter burst time for Process P" + (i + 1) + ": ");
+            int bt = sc.nextInt();
+            System.out.print("Enter memory required for Process P" + (i + 1) + ": ");
+            int mem = sc.nextInt();
+            processes.add(new Process(i + 1, at, bt, mem));
+        }
+        processes.sort(Comparator.comparingInt(p -> p.arrivalTime));
+        return processes;
+    }
+
+    private static void reset(List<Process> processes) {
+        for (Process p : processes) {
+            p.remainingTime = p.burstTime;
+            p.startTime = -1;
+            p.completionTime = 0;
+            p.waitingTime = 0;
+            p.turnaroundTime = 0;
+            p.allocatedBlock = -1;
+            p.isCompleted = false;
+            p.isAllocated = false;
+        }
+    }
+
+    // Runs every strategy on the same processes, the fits with variable
+    // partitions, and prints how fragmented memory was over the run; then
+    // replays one random allocate/release trace drawn from the same request
+    // sizes through each of them for throughput.
+    private static void compare(List<Process> processes, int[] memoryBlocks, int minSplit)
             throws InterruptedException {
-        int time = 0, completed = 0;
-        boolean[] blockOccupied = new boolean[memoryBlocks.length];
-        int nextFitPointer = 0;
-
-        System.out.println("\n--- " + strat.toString().replace('_', ' ') + " Simulation ---\n");
-
-        while (completed < processes.size()) {
-
-            for (Process p : processes) {
-                if (p.arrivalTime <= time && !p.isAllocated && !p.isCompleted) {
-                    int chosenBlock = -1;
-                    switch (strat) {
-                        case FIRST_FIT:
-                            for (int i = 0; i < memoryBlocks.length; i++) {
-                                if (!blockOccupied[i] && memoryBlocks[i] >= p.memoryRequired) {
-                                    chosenBlock = i;
-                                    break;
-                                }
-                            }
-                            break;
-                        case NEXT_FIT:
-                            int count = 0, idx = nextFitPointer;
-                            while (count < memoryBlocks.length) {
-                                if (!blockOccupied[idx] && memoryBlocks[idx] >= p.memoryRequired) {
-                                    chosenBlock = idx;
-                                    break;
-                                }
-                                idx = (idx + 1) % memoryBlocks.length;
-                                count++;
-                            }
-                            if (chosenBlock != -1) {
-                                nextFitPointer = (chosenBlock + 1) % memoryBlocks.length;
-                            }
-                            break;
-                        case WORST_FIT:
-                            int maxSize = -1;
-                            for (int i = 0; i < memoryBlocks.length; i++) {
-                                if (!blockOccupied[i] && memoryBlocks[i] >= p.memoryRequired
-                                        && memoryBlocks[i] > maxSize) {
-                                    maxSize = memoryBlocks[i];
-                                    chosenBlock = i;
-                                }
-                            }
-                            break;
-                        case BEST_FIT:
-                            int minSize = Integer.MAX_VALUE;
-                            for (int i = 0; i < memoryBlocks.length; i++) {
-                                if (!blockOccupied[i] && memoryBlocks[i] >= p.memoryRequired
-                                        && memoryBlocks[i] < minSize) {
-                                    minSize = memoryBlocks[i];
-                                    chosenBlock = i;
-                                }
-                            }
-                            break;
-                    }
-                    if (chosenBlock != -1) {
-                        blockOccupied[chosenBlock] = true;
-                        p.allocatedBlock = chosenBlock;
-                        p.isAllocated = true;
-                        System.out.println("Time " + time + ": P" + p.pid +
-                                " allocated to Block " + (chosenBlock + 1));
-                    } else {
-                        System.out.println("Time " + time + ": P" + p.pid + " waiting for memory.");
+        System.out.println("\n--- Fragmentation over time (min split " + minSplit + ") ---");
+        Arena.History.header(System.out);
+        for (Strategy strat : Strategy.values()) {
+            reset(processes);
+            simulate(processes, memoryBlocks, strat, minSplit, null, false).print(System.out);
+        }
+        System.out.println("Ext: free memory outside the largest hole. Int: units handed out beyond requests.");
+        System.out.println("Stalls: time units where a process waited although enough memory was free.");
+
+        int[] trace = trace(processes, 1_000_000, 42);
+        System.out.println("\n--- Throughput on a " + trace.length + "-operation trace ---");
+        System.out.printf("%-10s %-10s %-12s %-10s %-10s\n", "Strategy", "ns/op", "ops/s", "Failed%", "Ext%");
+        for (Strategy strat : Strategy.values()) {
+            Arena memory = Arena.create(strat, memoryBlocks, minSplit);
+            long[] result = AllocatorBenchmark.replay(memory, trace);
+            System.out.printf("%-10s %-10.1f %-12.0f %-10.2f %-10.2f\n", strat.toString().replace("_FIT", ""),
+                    (double) result[0] / trace.length, trace.length * 1e9 / Math.max(1, result[0]),
+                    result[2] == 0 ? 0 : 100.0 * result[1] / result[2], 100 * memory.externalFragmentation());
+        }
+    }
+
+    // Allocations are request sizes drawn from the processes (> 0); releases
+    // are <= 0 and pick the live allocation at -value modulo the live count.
+    static int[] trace(List<Process> processes, int length, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] trace = new int[length];
+        for (int i = 0; i < length; i++) {
+            trace[i] = random.nextBoolean() ? -random.nextInt(Integer.MAX_VALUE)
+                    : Math.max(1, processes.get(random.nextInt(processes.size())).memoryRequired);
+        }
+        return trace;
+    }
+
+    // Fixed partitions when minSplit is 0, otherwise variable ones; buddy and
+    // slab always carve their own. With out null nothing is printed and the run
+    // jumps from event to event. Returns the fragmentation history of a run
+    // that splits memory and null for one with whole fixed blocks.
+    private static Arena.History simulate(List<Process> processes, int[] memoryBlocks, Strategy strat,
+            int minSplit, PrintStream out, boolean pace) throws InterruptedException {
+        FreeBlockIndex freeBlocks = minSplit > 0 ? Arena.create(strat, memoryBlocks, minSplit)
+                : FreeBlockIndex.create(strat, memoryBlocks);
+        Run run = new Run(processes, memoryBlocks, freeBlocks, out, pace);
+        Arena.History history = run.memory != null ? new Arena.History(strat) : null;
+        run.history = history;
+
+        if (out != null)
+            out.println("\n--- " + strat.toString().replace('_', ' ') + " Simulation"
+                    + (minSplit > 0 ? " (variable partitions)" : "") + " ---\n");
+        run.run();
+        if (out == null)
+            return history;
+
+        out.println("--- Summary ---");
+        out.printf("%-6s %-8s %-8s %-12s %-8s %-12s %-8s\n",
+                "PID", "Arrival", "Burst", "MemReq", "Start", "Turnaround", "Waiting");
+        for (Process p : processes) {
+            out.printf("P%-5d %-8d %-8d %-12d %-8d %-12d %-8d\n",
+                    p.pid, p.arrivalTime, p.burstTime,
+                    p.memoryRequired, p.startTime,
+                    p.turnaroundTime, p.waitingTime);
+        }
+        if (history != null) {
+            out.println();
+            Arena.History.header(out);
+            history.print(out);
+        }
+        return history;
+    }
+
+    /*
+     * One simulation run, driven by two kinds of event: arrivals and the
+     * running process finishing. Memory is only given back when the running
+     * process finishes, so a process that did not get memory is only tried
+     * again then, and the running process keeps the CPU until it finishes:
+     * nothing that arrived before it can get memory in the meantime. Between
+     * two events nothing changes, so a quiet run jumps straight from one to
+     * the next; a printed run still goes tick by tick, but prints from the
+     * owner index and the ready and waiting sets instead of scanning every
+     * process for every block.
+     */
+    private static class Run {
+        final List<Process> processes;
+        final int[] memoryBlocks;
+        final FreeBlockIndex freeBlocks;
+        final Arena memory;
+        Arena.History history;
+        final PrintStream out;
+        final boolean pace;
+        final Process[] blockOwner;                 // fixed blocks
+        final Map<Integer, Process> partitionOwner; // arenas, by start address
+        final TreeSet<Integer> ready = new TreeSet<>();  // list positions holding memory, not running
+        final TreeSet<Integer> active = new TreeSet<>(); // arrived and not completed; printed runs only
+        List<Integer> waiting = new ArrayList<>();       // waiting for memory, in list order
+        int next = 0, time = 0, completed = 0, running = -1;
+        boolean freed = false; // memory was released since the waiting processes last tried
+
+        Run(List<Process> processes, int[] memoryBlocks, FreeBlockIndex freeBlocks, PrintStream out, boolean pace) {
+            this.processes = processes;
+            this.memoryBlocks = memoryBlocks;
+            this.freeBlocks = freeBlocks;
+            this.out = out;
+            this.pace = pace;
+            memory = freeBlocks instanceof Arena ? (Arena) freeBlocks : null;
+            blockOwner = memory == null ? new Process[memoryBlocks.length] : null;
+            partitionOwner = memory != null ? new HashMap<>() : null;
+        }
+
+        void run() throws InterruptedException {
+            int n = processes.size();
+            while (completed < n) {
+                boolean stalledNow = allocate();
+                if (running == -1 && !ready.isEmpty())
+                    running = ready.pollFirst();
+                if (running == -1 && next == n) {
+                    // Nothing holds memory, so whoever still waits will never fit.
+                    if (out != null) {
+                        out.println("Time " + time + ": CPU is IDLE.");
+                        out.println("Time " + time + ": remaining processes can never be allocated.\n");
                     }
+                    break;
                 }
-            }
 
-            boolean ran = false;
-            for (Process p : processes) {
-                if (p.isAllocated && !p.isCompleted) {
-                    if (p.startTime == -1) {
-                        p.startTime = time;
-                        System.out.println("Time " + time + ": P" + p.pid + " started.");
+                Process r = running == -1 ? null : processes.get(running);
+                int end = next < n ? processes.get(next).arrivalTime : Integer.MAX_VALUE;
+                if (r != null)
+                    end = (int) Math.min(end, (long) time + Math.max(1, r.remainingTime));
+                boolean stalledLater = false;
+                for (int i : waiting) {
+                    stalledLater |= memory != null && processes.get(i).memoryRequired <= memory.free;
+                }
+
+                if (out != null) {
+                    for (int t = time; t < end; t++) {
+                        tick(t, r, t == time ? stalledNow : stalledLater);
                     }
-                    System.out.print("Time " + time + ": ");
-                    for (Process q : processes) {
-                        if (q.arrivalTime <= time && !q.isCompleted) {
-                            if (q == p)
-                                System.out.print("[P" + q.pid + ": RUNNING] ");
-                            else if (!q.isAllocated)
-                                System.out.print("[P" + q.pid + ": WAITING for memory] ");
-                            else
-                                System.out.print("[P" + q.pid + ": WAITING for CPU] ");
-                        }
+                } else {
+                    // Every tick but the last sees memory as it was before r finished.
+                    int ticks = end - time;
+                    if (history != null && ticks > 1) {
+                        history.sample(memory, stalledNow, 1);
+                        history.sample(memory, stalledLater, ticks - 2);
                     }
-                    System.out.println();
-                    p.remainingTime--;
-                    ran = true;
-                    if (p.remainingTime == 0) {
-                        p.isCompleted = true;
-                        p.completionTime = time + 1;
-                        p.turnaroundTime = p.completionTime - p.arrivalTime;
-                        p.waitingTime = p.turnaroundTime - p.burstTime;
-                        blockOccupied[p.allocatedBlock] = false;
-                        System.out.println("Time " + (time + 1) +
-                                ": P" + p.pid + " completed. Block " +
-                                (p.allocatedBlock + 1) + " released.\n");
-                        completed++;
+                    if (r != null) {
+                        if (r.startTime == -1)
+                            r.startTime = time;
+                        r.remainingTime -= ticks;
+                        if (r.remainingTime <= 0)
+                            finish(r, end);
                     }
-                    break;
+                    if (history != null)
+                        history.sample(memory, ticks > 1 ? stalledLater : stalledNow, 1);
                 }
+                time = end;
             }
-            if (!ran) {
-                System.out.println("Time " + time + ": CPU is IDLE.");
-            }
+        }
 
-            // ---- PRINT BLOCK STATUS TABLE HERE ----
-            System.out.println("\nCurrent Memory Block Status:");
-            System.out.printf("%-8s %-10s %-12s %-14s %-14s\n",
-                    "BlockNo", "Status", "Process", "Block Size", "Memory Left");
-            for (int i = 0; i < memoryBlocks.length; i++) {
-                String status, proc;
-                int memLeft;
-                // Find if any process is occupying this block
-                Process owner = null;
-                for (Process p : processes) {
-                    if (p.allocatedBlock == i && p.isAllocated && !p.isCompleted) {
-                        owner = p;
-                        break;
-                    }
+        // Tries the processes waiting for memory, if any was released since
+        // they last tried, and then the new arrivals, all in list order. True
+        // if one of them waited although enough memory was free in total.
+        private boolean allocate() {
+            int arrived = next;
+            while (next < processes.size() && processes.get(next).arrivalTime <= time) {
+                if (out != null)
+                    active.add(next);
+                next++;
+            }
+            boolean stalled = false;
+            List<Integer> still = new ArrayList<>();
+            int old = waiting.size();
+            for (int k = 0; k < old + next - arrived; k++) {
+                int i = k < old ? waiting.get(k) : arrived + k - old;
+                Process p = processes.get(i);
+                int chosenBlock = k < old && !freed ? -1 : freeBlocks.allocate(p.memoryRequired);
+                if (chosenBlock == -1) {
+                    stalled |= memory != null && p.memoryRequired <= memory.free;
+                    still.add(i);
+                    if (out != null)
+                        out.println("Time " + time + ": P" + p.pid + " waiting for memory.");
+                    continue;
                 }
-                if (owner != null) {
-                    status = "OCCUPIED";
-                    proc = "P" + owner.pid;
-                    memLeft = memoryBlocks[i] - owner.memoryRequired;
+                p.allocatedBlock = chosenBlock;
+                p.isAllocated = true;
+                ready.add(i);
+                if (memory != null) {
+                    partitionOwner.put(chosenBlock, p);
+                    if (out != null)
+                        out.println("Time " + time + ": P" + p.pid + " allocated at " + chosenBlock +
+                                " in Block " + memory.blockOf(chosenBlock));
                 } else {
-                    status = "FREE";
-                    proc = "-";
-                    memLeft = memoryBlocks[i];
+                    blockOwner[chosenBlock] = p;
+                    if (out != null)
+                        out.println("Time " + time + ": P" + p.pid +
+                                " allocated to Block " + (chosenBlock + 1));
+                }
+            }
+            waiting = still;
+            freed = false;
+            return stalled;
+        }
+
+        private void tick(int t, Process r, boolean stalled) throws InterruptedException {
+            if (t > time) {
+                for (int i : waiting) {
+                    out.println("Time " + t + ": P" + processes.get(i).pid + " waiting for memory.");
+                }
+            }
+            if (r != null) {
+                if (r.startTime == -1) {
+                    r.startTime = t;
+                    out.println("Time " + t + ": P" + r.pid + " started.");
                 }
-                System.out.printf("%-8d %-10s %-12s %-14d %-14d\n",
-                        (i + 1), status, proc, memoryBlocks[i], memLeft);
+                out.print("Time " + t + ": ");
+                for (int i : active) {
+                    Process q = processes.get(i);
+                    if (q == r)
+                        out.print("[P" + q.pid + ": RUNNING] ");
+                    else if (!q.isAllocated)
+                        out.print("[P" + q.pid + ": WAITING for memory] ");
+                    else
+                        out.print("[P" + q.pid + ": WAITING for CPU] ");
+                }
+                out.println();
+                r.remainingTime--;
+                if (r.remainingTime <= 0)
+                    finish(r, t + 1);
+            } else {
+                out.println("Time " + t + ": CPU is IDLE.");
             }
-            System.out.println();
-            // ---- END TABLE ----
 
-            Thread.sleep(500);
-            time++;
+            if (memory != null) {
+                history.sample(memory, stalled, 1);
+                printPartitions();
+            } else {
+                printBlocks();
+            }
+            if (pace)
+                Thread.sleep(500);
         }
 
-        System.out.println("--- Summary ---");
-        System.out.printf("%-6s %-8s %-8s %-12s %-8s %-12s %-8s\n",
-                "PID", "Arrival", "Burst", "MemReq", "Start", "Turnaround", "Waiting");
-        for (Process p : processes) {
-            System.out.printf("P%-5d %-8d %-8d %-12d %-8d %-12d %-8d\n",
-                    p.pid, p.arrivalTime, p.burstTime,
-                    p.memoryRequired, p.startTime,
-                    p.turnaroundTime, p.waitingTime);
+        private void finish(Process p, int at) {
+            p.isCompleted = true;
+            p.remainingTime = 0;
+            p.completionTime = at;
+            p.turnaroundTime = p.completionTime - p.arrivalTime;
+            p.waitingTime = p.turnaroundTime - p.burstTime;
+            freeBlocks.release(p.allocatedBlock);
+            if (memory != null)
+                partitionOwner.remove(p.allocatedBlock);
+            else
+                blockOwner[p.allocatedBlock] = null;
+            active.remove(running);
+            running = -1;
+            freed = true;
+            completed++;
+            if (out == null)
+                return;
+            if (memory != null)
+                out.println("Time " + at + ": P" + p.pid +
+                        " completed. Partition at " + p.allocatedBlock + " released.\n");
+            else
+                out.println("Time " + at +
+                        ": P" + p.pid + " completed. Block " +
+                        (p.allocatedBlock + 1) + " released.\n");
         }
-    }
 
+        private void printBlocks() {
+            out.println("\nCurrent Memory Block Status:");
+            out.printf("%-8s %-10s %-12s %-14s %-14s\n",
+                    "BlockNo", "Status", "Process", "Block Size", "Memory Left");
+            for (int i = 0; i < memoryBlocks.length; i++) {
+                Process owner = blockOwner[i];
+                out.printf("%-8d %-10s %-12s %-14d %-14d\n", (i + 1),
+                        owner != null ? "OCCUPIED" : "FREE", owner != null ? "P" + owner.pid : "-",
+                        memoryBlocks[i], owner != null ? memoryBlocks[i] - owner.memoryRequired : memoryBlocks[i]);
+            }
+            out.println();
+        }
+
+        private void printPartitions() {
+            out.println("\nCurrent Partitions:");
+            out.printf("%-8s %-10s %-10s %-12s %-10s %-10s\n",
+                    "Block", "Start", "Size", "Status", "Process", "Slack");
+            memory.forEachPartition((start, size, used) -> {
+                Process owner = used ? partitionOwner.get(start) : null;
+                out.printf("%-8d %-10d %-10d %-12s %-10s %-10d\n", memory.blockOf(start), start, size,
+                        owner != null ? "OCCUPIED" : "FREE", owner != null ? "P" + owner.pid : "-",
+                        owner != null ? size - owner.memoryRequired : 0);
+            });
+            out.printf("Free %d in %d holes, largest %d: external fragmentation %.2f%%, internal %d\n\n",
+                    memory.free, memory.holes, memory.largestHole(),
+                    100 * memory.externalFragmentation(), memory.internalFragmentation());
+        }
+    }
 }
 
 /*
@@ -0,0 +1,190 @@
+package all;
+
+import java.lang.management.*;
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/*
+ * A real memory pool: one direct ByteBuffer managed by any of the strategies.
+ * The buffer is cut into granules (64 bytes by default) and the strategy's
+ * Arena hands out granule addresses, so allocate(bytes) returns a byte offset
+ * into the buffer and release(offset) gives it back. buffer(offset, bytes) is a
+ * view of an allocation for reading and writing.
+ *
+ * Every call takes the arena's lock; the Arena bookkeeping is not thread-safe
+ * on its own. The strategy's index costs a few bytes per granule on the heap,
+ * which is why the granule is not one byte.
+ */
+class OffHeapArena implements Allocator {
+    final ByteBuffer memory;
+    final int granule;
+    private final Arena arena;
+    private final int[] asked; // requested bytes at the first granule of each allocation
+    private long requestedBytes = 0;
+
+    OffHeapArena(int capacity, int granule, MemoryAllocationSimulation.Strategy strategy, int minSplit) {
+        if (granule <= 0 || capacity < granule)
+            throw new IllegalArgumentException("capacity must hold at least one granule");
+        this.granule = granule;
+        memory = ByteBuffer.allocateDirect(capacity / granule * granule);
+        arena = Arena.create(strategy, new int[] { capacity / granule }, minSplit);
+        asked = new int[capacity / granule];
+    }
+
+    OffHeapArena(int capacity, MemoryAllocationSimulation.Strategy strategy) {
+        this(capacity, 64, strategy, 1);
+    }
+
+    // Byte offset of a new allocation of at least bytes, or -1 if the pool is full.
+    public synchronized int allocate(int bytes) {
+        if (bytes <= 0)
+            throw new IllegalArgumentException("bytes must be positive");
+        int unit = arena.allocate((int) ((bytes + (long) granule - 1) / granule));
+        if (unit == -1)
+            return -1;
+        asked[unit] = bytes;
+        requestedBytes += bytes;
+        return unit * granule;
+    }
+
+    public synchronized void release(int offset) {
+        int unit = offset / granule;
+        if (offset < 0 || offset % granule != 0 || unit >= asked.length || asked[unit] == 0)
+            throw new IllegalArgumentException("No allocation at offset " + offset);
+        arena.release(unit);
+        requestedBytes -= asked[unit];
+        asked[unit] = 0;
+    }
+
+    // The bytes of an allocation as their own buffer, position 0 and limit bytes.
+    ByteBuffer buffer(int offset, int bytes) {
+        return memory.duplicate().position(offset).limit(offset + bytes).slice();
+    }
+
+    synchronized long freeBytes() {
+        return arena.free * granule;
+    }
+
+    // Bytes taken from the pool beyond what was asked for: granule and strategy rounding.
+    synchronized long wastedBytes() {
+        return arena.granted * granule - requestedBytes;
+    }
+
+    synchronized double externalFragmentation() {
+        return arena.externalFragmentation();
+    }
+
+    static final String USAGE = "Usage: MemoryAllocationSimulation --offheap [capacity-mb] [threads] [ops]";
+
+    // Each thread allocates buffers of 16..4096 bytes, writes into them and
+    // frees a random live one half of the time, first against every strategy
+    // on one shared pool and then with the JVM doing the allocating.
+    static void bench(String[] args) throws InterruptedException {
+        int capacity, threads, ops;
+        try {
+            capacity = (args.length > 1 ? Integer.parseInt(args[1]) : 64) << 20;
+            threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+            ops = args.length > 3 ? Integer.parseInt(args[3]) : 2_000_000;
+            if (capacity <= 0 || threads <= 0 || ops <= 0)
+                throw new IllegalArgumentException();
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        System.out.printf("%-10s %-10s %-12s %-10s %-10s %-8s %-8s\n",
+                "Allocator", "ns/op", "ops/s", "Failed%", "ExtPeak%", "gc.count", "gc.ms");
+        for (MemoryAllocationSimulation.Strategy strategy : MemoryAllocationSimulation.Strategy.values()) {
+            run(strategy.toString().replace("_FIT", ""), threads, ops, new OffHeapArena(capacity, strategy));
+        }
+        run("JVM", threads, ops, null);
+    }
+
+    private static void run(String name, int threads, int ops, OffHeapArena pool) throws InterruptedException {
+        long[] failed = new long[threads];
+        double[] externalPeak = { 0 }; // sampled by the first thread
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads), go = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            done.add(workers.submit(() -> {
+                SplittableRandom random = new SplittableRandom(id);
+                int[] live = new int[1024];
+                ByteBuffer[] heap = new ByteBuffer[live.length];
+                int count = 0;
+                ready.countDown();
+                go.await();
+                for (int i = 0; i < ops / threads; i++) {
+                    if (id == 0 && pool != null && (i & 4095) == 0)
+                        externalPeak[0] = Math.max(externalPeak[0], pool.externalFragmentation());
+                    if (count > 0 && (count == live.length || random.nextBoolean())) {
+                        int k = random.nextInt(count--);
+                        if (pool != null)
+                            pool.release(live[k]);
+                        live[k] = live[count];
+                        heap[k] = heap[count];
+                        heap[count] = null;
+                        continue;
+                    }
+                    int bytes = 16 + random.nextInt(4081);
+                    ByteBuffer b;
+                    if (pool != null) {
+                        int offset = pool.allocate(bytes);
+                        if (offset == -1) {
+                            failed[id]++;
+                            continue;
+                        }
+                        live[count] = offset;
+                        b = pool.buffer(offset, bytes);
+                    } else {
+                        b = ByteBuffer.allocate(bytes);
+                        heap[count] = b;
+                    }
+                    b.putLong(0, i).putLong(bytes - 8, i);
+                    count++;
+                }
+                if (pool != null) {
+                    for (int k = 0; k < count; k++) {
+                        pool.release(live[k]);
+                    }
+                }
+                return null;
+            }));
+        }
+        ready.await();
+        long[] gc = gc();
+        long begin = System.nanoTime();
+        go.countDown();
+        try {
+            for (Future<?> f : done) {
+                f.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(name + " run failed", e.getCause());
+        } finally {
+            workers.shutdown();
+        }
+        long nanos = System.nanoTime() - begin;
+        long[] gcAfter = gc();
+        long total = ops / threads * (long) threads, failures = 0;
+        for (long f : failed) {
+            failures += f;
+        }
+        System.out.printf("%-10s %-10.1f %-12.0f %-10.2f %-10s %-8d %-8d\n", name, (double) nanos / total,
+                total * 1e9 / nanos, 100.0 * failures / total,
+                pool == null ? "-" : String.format("%.2f", 100 * externalPeak[0]),
+                gcAfter[0] - gc[0], gcAfter[1] - gc[1]);
+    }
+
+    // {collections, milliseconds} summed over all collectors.
+    static long[] gc() {
+        long[] total = new long[2];
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total[0] += Math.max(0, gc.getCollectionCount());
+            total[1] += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
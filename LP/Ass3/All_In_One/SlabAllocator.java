@@ -0,0 +1,175 @@
+package all;
+
+import java.util.*;
+
+/*
+ * Size-class (slab) allocator. Requests are rounded up to a size class: every
+ * size up to 8, then four classes per doubling (10, 12, 14, 16, 20, 24, ...),
+ * so rounding wastes under 25%. Each class carves slabs of up to OBJECTS
+ * objects out of the memory blocks through a first-fit VariablePartition,
+ * halving the slab when a full one does not fit, down to a single object.
+ *
+ * A slab's free objects are the set bits of one int, and the slabs of a class
+ * that still have room form a linked list, so allocate takes the lowest free
+ * bit of the list head and release sets it again, both O(1) apart from carving
+ * or returning a whole slab. A slab whose objects are all free goes back to
+ * the blocks at once.
+ *
+ * Internal fragmentation covers both the class rounding and the unused objects
+ * of each slab: everything taken from the blocks that no request asked for.
+ */
+class SlabAllocator extends Arena {
+    static final int OBJECTS = 8;
+    static final int CLASSES = 8 + 28 * 4;
+
+    private final VariablePartition pages;
+    private final int[] partial = new int[CLASSES]; // head of each class's non-full slabs
+    private final int[] slabAt; // slab + 1 at the start of each object
+    private final int[] asked;
+    private int[] start = new int[16], size = new int[16], mask = new int[16], full = new int[16];
+    private int[] prev = new int[16], next = new int[16];
+    private int slabs = 0, recycled = -1; // recycled slab ids are chained through next
+
+    SlabAllocator(int[] sizes) {
+        super(MemoryAllocationSimulation.Strategy.SLAB, sizes);
+        pages = new VariablePartition(MemoryAllocationSimulation.Strategy.FIRST_FIT, sizes, 1);
+        Arrays.fill(partial, -1);
+        slabAt = new int[Math.max(total, 1)];
+        asked = new int[Math.max(total, 1)];
+        sync();
+    }
+
+    static int classOf(int n) {
+        if (n <= 8)
+            return n - 1;
+        int e = 31 - Integer.numberOfLeadingZeros(n - 1);
+        return 8 + (e - 3) * 4 + ((n - 1) >>> (e - 2)) - 4;
+    }
+
+    static long classSize(int c) {
+        if (c < 8)
+            return c + 1;
+        int e = 3 + (c - 8) / 4;
+        return (long) ((c - 8) % 4 + 5) << (e - 2);
+    }
+
+    public int allocate(int request) {
+        int c = classOf(Math.max(1, request));
+        int s = partial[c];
+        if (s == -1 && (s = carve(c)) == -1)
+            return -1;
+        int bit = Integer.numberOfTrailingZeros(mask[s]);
+        mask[s] &= ~(1 << bit);
+        if (mask[s] == 0)
+            unlink(s, c);
+        int a = start[s] + bit * size[s];
+        asked[a] = request;
+        requested += request;
+        used++;
+        sync();
+        return a;
+    }
+
+    public void release(int a) {
+        int s = slabAt[a] - 1;
+        int bit = s < 0 ? -1 : (a - start[s]) / size[s];
+        if (s < 0 || (mask[s] & (1 << bit)) != 0)
+            throw new IllegalStateException("No object in use at " + a);
+        int c = classOf(size[s]);
+        boolean wasFull = mask[s] == 0;
+        mask[s] |= 1 << bit;
+        requested -= asked[a];
+        used--;
+        if (mask[s] == full[s]) {
+            if (!wasFull)
+                unlink(s, c);
+            for (int a2 = start[s]; a2 < start[s] + Integer.bitCount(full[s]) * size[s]; a2 += size[s]) {
+                slabAt[a2] = 0;
+            }
+            pages.release(start[s]);
+            next[s] = recycled;
+            recycled = s;
+        } else if (wasFull) {
+            link(s, c);
+        }
+        sync();
+    }
+
+    // New slab for class c, as many objects as fit up to OBJECTS; -1 if not even one does.
+    private int carve(int c) {
+        long objectSize = classSize(c);
+        int objects = OBJECTS, a = -1;
+        for (; objects >= 1; objects /= 2) {
+            if (objects * objectSize <= Integer.MAX_VALUE && (a = pages.allocate((int) (objects * objectSize))) != -1)
+                break;
+        }
+        if (a == -1)
+            return -1;
+
+        int s = recycled;
+        if (s != -1) {
+            recycled = next[s];
+        } else {
+            if (slabs == start.length) {
+                int n = slabs * 2;
+                start = Arrays.copyOf(start, n);
+                size = Arrays.copyOf(size, n);
+                mask = Arrays.copyOf(mask, n);
+                full = Arrays.copyOf(full, n);
+                prev = Arrays.copyOf(prev, n);
+                next = Arrays.copyOf(next, n);
+            }
+            s = slabs++;
+        }
+        start[s] = a;
+        size[s] = (int) objectSize;
+        full[s] = (1 << objects) - 1;
+        mask[s] = full[s];
+        for (int i = 0; i < objects; i++) {
+            slabAt[a + i * size[s]] = s + 1;
+        }
+        link(s, c);
+        return s;
+    }
+
+    private void link(int s, int c) {
+        prev[s] = -1;
+        next[s] = partial[c];
+        if (partial[c] != -1)
+            prev[partial[c]] = s;
+        partial[c] = s;
+    }
+
+    private void unlink(int s, int c) {
+        if (prev[s] != -1)
+            next[prev[s]] = next[s];
+        else
+            partial[c] = next[s];
+        if (next[s] != -1)
+            prev[next[s]] = prev[s];
+    }
+
+    private void sync() {
+        free = pages.free;
+        granted = pages.granted;
+        holes = pages.holes;
+    }
+
+    int largestHole() {
+        return pages.largestHole();
+    }
+
+    // Holes, and each object of every slab as its own partition.
+    void forEachPartition(PartitionVisitor visitor) {
+        pages.forEachPartition((a, length, inUse) -> {
+            if (!inUse) {
+                visitor.partition(a, length, false);
+                return;
+            }
+            int s = slabAt[a] - 1;
+            for (int i = 0; i < Integer.bitCount(full[s]); i++) {
+                visitor.partition(a + i * size[s], size[s], (mask[s] & (1 << i)) == 0);
+            }
+        });
+    }
+}
@@ -0,0 +1,257 @@
+package all;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+
+/*
+ * Replays a recorded allocation trace through an Arena as fast as the file can
+ * be read, printing utilisation and fragmentation snapshots along the way.
+ *
+ * A trace file is an 8-byte header, the magic "ATRC" and a version, followed by
+ * 16-byte events, all big-endian:
+ *
+ *   long  time   when it happened, in any unit, never decreasing
+ *   int   id     the allocation it is about, a small non-negative number that
+ *                may be reused once freed
+ *   int   size   > 0 allocates size units as id, 0 frees id
+ *
+ * The file is memory-mapped in windows of up to WINDOW bytes and read straight
+ * from the mapping, so traces of any length replay without being loaded. The
+ * handle behind each id is kept in an array indexed by id. An allocation that
+ * failed leaves its id without a handle, and its free is skipped.
+ *
+ * Snapshots come every --every events and, with --interval, whenever time
+ * reaches the next multiple of interval past the first event.
+ */
+class TraceReplay {
+    static final int MAGIC = 0x41545243; // "ATRC"
+    static final int VERSION = 1, HEADER = 8, EVENT = 16;
+    static final long WINDOW = 1L << 30;
+
+    static final String USAGE = "Usage: MemoryAllocationSimulation --replay file [all|first,next,worst,best,buddy,slab]"
+            + " [--every events] [--interval time] [--blocks m] [--block-size units] [--min-split s]\n"
+            + "       MemoryAllocationSimulation --record file [uniform|small|mixed|phased] [events]";
+
+    private final Arena memory;
+    private final long every, interval;
+    private final PrintStream out;
+    private int[] handles = new int[1024]; // handle + 1 of each live id, 0 if none
+    long events = 0, allocations = 0, failed = 0, skipped = 0, lastTime = 0;
+    int live = 0;
+
+    TraceReplay(Arena memory, long every, long interval, PrintStream out) {
+        this.memory = memory;
+        this.every = every;
+        this.interval = interval;
+        this.out = out;
+    }
+
+    // Returns the nanoseconds the replay took, snapshots included.
+    long replay(Path file) throws IOException {
+        long begin = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER)
+                throw new IOException(file + " is not an allocation trace");
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION)
+                throw new IOException(file + " is not an allocation trace");
+
+            long count = (length - HEADER) / EVENT, next = 0;
+            for (long first = 0; first < count; ) {
+                int n = (int) Math.min(count - first, WINDOW / EVENT);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, HEADER + first * EVENT,
+                        (long) n * EVENT);
+                for (int i = 0; i < n; i++) {
+                    long time = window.getLong();
+                    int id = window.getInt(), size = window.getInt();
+                    if (interval > 0) {
+                        if (events == 0)
+                            next = time + interval;
+                        if (time >= next) {
+                            snapshot(next);
+                            next = time - (time - next) % interval + interval;
+                        }
+                    }
+                    apply(id, size);
+                    events++;
+                    lastTime = time;
+                    if (every > 0 && events % every == 0)
+                        snapshot(time);
+                }
+                first += n;
+            }
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private void apply(int id, int size) throws IOException {
+        if (id < 0 || size < 0)
+            throw new IOException("Bad event " + id + " " + size + " after " + events + " events");
+        if (id >= handles.length)
+            handles = Arrays.copyOf(handles, Math.max(id + 1, handles.length * 2));
+        if (size == 0) {
+            if (handles[id] == 0) {
+                skipped++;
+                return;
+            }
+            memory.release(handles[id] - 1);
+            handles[id] = 0;
+            live--;
+            return;
+        }
+        if (handles[id] != 0)
+            throw new IOException("Allocation " + id + " is allocated twice after " + events + " events");
+        allocations++;
+        int handle = memory.allocate(size);
+        if (handle == -1) {
+            failed++;
+            return;
+        }
+        handles[id] = handle + 1;
+        live++;
+    }
+
+    static void header(PrintStream out) {
+        out.printf("%-14s %-12s %-10s %-8s %-8s %-8s %-12s %-8s %-8s\n",
+                "Time", "Events", "Live", "Used%", "Asked%", "Ext%", "Int", "Holes", "Failed%");
+    }
+
+    // Used: units handed out; asked: units requested, both against all memory.
+    private void snapshot(long time) {
+        out.printf("%-14d %-12d %-10d %-8.2f %-8.2f %-8.2f %-12d %-8d %-8.2f\n", time, events, live,
+                percent(memory.granted, memory.total), percent(memory.requested, memory.total),
+                100 * memory.externalFragmentation(), memory.internalFragmentation(), memory.holes,
+                percent(failed, allocations));
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : 100.0 * part / whole;
+    }
+
+    // Writes a trace in the AllocatorBenchmark encoding as a trace file, one
+    // time unit per event; ids are reused lowest first.
+    static void record(int[] trace, Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            int[] live = new int[64];
+            int count = 0;
+            PriorityQueue<Integer> unused = new PriorityQueue<>();
+            int ids = 0;
+            for (int t = 0; t < trace.length; t++) {
+                int op = trace[t];
+                if (op > 0) {
+                    int id = unused.isEmpty() ? ids++ : unused.poll();
+                    if (count == live.length)
+                        live = Arrays.copyOf(live, count * 2);
+                    live[count++] = id;
+                    out.writeLong(t);
+                    out.writeInt(id);
+                    out.writeInt(op);
+                } else if (count > 0) {
+                    int i = -op % count;
+                    out.writeLong(t);
+                    out.writeInt(live[i]);
+                    out.writeInt(0);
+                    unused.add(live[i]);
+                    live[i] = live[--count];
+                }
+            }
+        }
+    }
+
+    static void cli(String[] args) {
+        if (args[0].equals("--record")) {
+            try {
+                if (args.length < 2 || args.length > 4)
+                    throw new IllegalArgumentException();
+                String shape = args.length > 2 ? args[2] : "phased";
+                int length = args.length > 3 ? (int) Double.parseDouble(args[3]) : 10_000_000;
+                if (length <= 0)
+                    throw new IllegalArgumentException();
+                record(AllocatorBenchmark.synthetic(shape, length, 42), Paths.get(args[1]));
+                System.out.println("Recorded " + length + " " + shape + " operations to " + args[1]);
+            } catch (IllegalArgumentException e) {
+                System.out.println(USAGE);
+            } catch (IOException e) {
+                System.out.println("Cannot write " + args[1] + ": " + e.getMessage());
+            }
+            return;
+        }
+
+        List<MemoryAllocationSimulation.Strategy> strategies =
+                new ArrayList<>(Arrays.asList(MemoryAllocationSimulation.Strategy.values()));
+        long every = 1_000_000, interval = 0;
+        int blockCount = 1, blockSize = 1 << 20, minSplit = 8;
+        try {
+            if (args.length < 2)
+                throw new IllegalArgumentException();
+            int i = 2;
+            if (i < args.length && !args[i].startsWith("--")) {
+                String list = args[i++];
+                if (!list.equals("all")) {
+                    strategies.clear();
+                    for (String name : list.split(",")) {
+                        strategies.add(strategy(name));
+                    }
+                }
+            }
+            for (; i < args.length; i += 2) {
+                if (i + 1 >= args.length)
+                    throw new IllegalArgumentException(args[i]);
+                String flag = args[i], value = args[i + 1];
+                if (flag.equals("--every")) {
+                    every = (long) Double.parseDouble(value);
+                } else if (flag.equals("--interval")) {
+                    interval = (long) Double.parseDouble(value);
+                } else if (flag.equals("--blocks")) {
+                    blockCount = Integer.parseInt(value);
+                } else if (flag.equals("--block-size")) {
+                    blockSize = Integer.parseInt(value);
+                } else if (flag.equals("--min-split")) {
+                    minSplit = Integer.parseInt(value);
+                } else {
+                    throw new IllegalArgumentException(flag);
+                }
+            }
+            if (every < 0 || interval < 0 || blockCount <= 0 || blockSize <= 0
+                    || (long) blockCount * blockSize > Integer.MAX_VALUE - 1 || minSplit < 1)
+                throw new IllegalArgumentException();
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE);
+            return;
+        }
+        int[] blocks = new int[blockCount];
+        Arrays.fill(blocks, blockSize);
+
+        for (MemoryAllocationSimulation.Strategy strategy : strategies) {
+            TraceReplay replay = new TraceReplay(Arena.create(strategy, blocks, minSplit), every, interval, System.out);
+            System.out.println("\n--- " + strategy.toString().replace('_', ' ') + " replay of " + args[1] + " ---");
+            header(System.out);
+            long nanos;
+            try {
+                nanos = replay.replay(Paths.get(args[1]));
+            } catch (IOException e) {
+                System.out.println("Cannot replay " + args[1] + ": " + e.getMessage());
+                return;
+            }
+            replay.snapshot(replay.lastTime);
+            System.out.printf("%d events in %.1f ms: %.1f ns/event, %.0f events/s, %.2f%% of allocations failed, "
+                    + "%d frees skipped\n", replay.events, nanos / 1e6, (double) nanos / Math.max(1, replay.events),
+                    replay.events * 1e9 / Math.max(1, nanos), percent(replay.failed, replay.allocations),
+                    replay.skipped);
+        }
+    }
+
+    private static MemoryAllocationSimulation.Strategy strategy(String name) {
+        for (MemoryAllocationSimulation.Strategy strategy : MemoryAllocationSimulation.Strategy.values()) {
+            if (strategy.toString().replace("_FIT", "").equalsIgnoreCase(name))
+                return strategy;
+        }
+        throw new IllegalArgumentException("Unknown strategy " + name);
+    }
+}
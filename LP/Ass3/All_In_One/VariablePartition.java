@@ -0,0 +1,166 @@
+package all;
+
+import java.util.*;
+
+/*
+ * Dynamic partitioning of the memory blocks: a request takes only what it asks
+ * for and the rest of the hole stays free, and a released partition merges
+ * with free neighbours in the same block. Holes never merge across a block
+ * edge, so one 1000-unit block behaves differently from two of 500.
+ *
+ * Every partition carries boundary tags at its first and last unit: +size for a
+ * hole and -size for a used partition. On release the tags just before and just
+ * after the partition say in O(1) whether a neighbour is free and how big it is.
+ * A leftover smaller than minSplit is not split off but handed out with the
+ * request; that slack is internal fragmentation.
+ *
+ * Holes are found the way FreeBlockIndex finds blocks, but over addresses: a max
+ * segment tree of the hole starting at each address for first, next and worst
+ * fit, and for best fit a tree of holes ordered by (size, address).
+ *
+ * The tags and the segment tree take a few ints per unit of memory.
+ */
+class VariablePartition extends Arena {
+    final int minSplit;
+    private final int[] tags;
+    private final int[] asked; // request behind each used partition, at its start
+    private final int leaves;
+    private final int[] max; // largest hole starting under each node, MIN_VALUE if none
+    private final TreeSet<Long> bySize; // (size << 32 | start) of each hole, best fit only
+    private int rover = 0;
+
+    VariablePartition(MemoryAllocationSimulation.Strategy strategy, int[] sizes, int minSplit) {
+        super(strategy, sizes);
+        if (minSplit < 1)
+            throw new IllegalArgumentException("minSplit must be at least 1");
+        if (strategy == MemoryAllocationSimulation.Strategy.BUDDY || strategy == MemoryAllocationSimulation.Strategy.SLAB)
+            throw new IllegalArgumentException(strategy + " is not a fit strategy");
+        this.minSplit = minSplit;
+        tags = new int[Math.max(total, 1)];
+        asked = new int[Math.max(total, 1)];
+        leaves = Integer.highestOneBit(Math.max(1, total - 1)) << 1;
+        max = new int[2 * leaves];
+        Arrays.fill(max, Integer.MIN_VALUE);
+        bySize = strategy == MemoryAllocationSimulation.Strategy.BEST_FIT ? new TreeSet<>() : null;
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] > 0)
+                addHole(edges[i], sizes[i]);
+        }
+    }
+
+    public int allocate(int request) {
+        int need = Math.max(1, request);
+        int start = find(need);
+        if (start == -1)
+            return -1;
+        int size = tags[start];
+        removeHole(start, size);
+        int take = size - need < minSplit ? size : need;
+        tag(start, -take);
+        if (take < size)
+            addHole(start + take, size - take);
+        if (strategy == MemoryAllocationSimulation.Strategy.NEXT_FIT)
+            rover = start + take == total ? 0 : start + take;
+        asked[start] = request;
+        free -= take;
+        granted += take;
+        requested += request;
+        used++;
+        return start;
+    }
+
+    public void release(int start) {
+        int size = -tags[start];
+        if (size <= 0)
+            throw new IllegalStateException("No partition in use at " + start);
+        free += size;
+        granted -= size;
+        requested -= asked[start];
+        used--;
+
+        int end = start + size;
+        if (!isEdge(start) && tags[start - 1] > 0) {
+            int left = tags[start - 1];
+            removeHole(start - left, left);
+            start -= left;
+            size += left;
+        }
+        if (end < total && !isEdge(end) && tags[end] > 0) {
+            int right = tags[end];
+            removeHole(end, right);
+            size += right;
+        }
+        addHole(start, size);
+        if (rover > start && rover < start + size)
+            rover = start;
+    }
+
+    private int find(int need) {
+        switch (strategy) {
+            case FIRST_FIT:
+                return firstFrom(0, need);
+            case NEXT_FIT:
+                int start = firstFrom(rover, need);
+                return start != -1 ? start : firstFrom(0, need);
+            case WORST_FIT:
+                return max[1] < need ? -1 : firstFrom(0, max[1]);
+            default:
+                Long hole = bySize.ceiling((long) need << 32);
+                return hole == null ? -1 : (int) hole.longValue();
+        }
+    }
+
+    private void tag(int start, int size) {
+        tags[start] = size;
+        tags[start + Math.abs(size) - 1] = size;
+    }
+
+    private void addHole(int start, int size) {
+        tag(start, size);
+        set(start, size);
+        if (bySize != null)
+            bySize.add(((long) size << 32) | start);
+        holes++;
+    }
+
+    private void removeHole(int start, int size) {
+        set(start, Integer.MIN_VALUE);
+        if (bySize != null)
+            bySize.remove(((long) size << 32) | start);
+        holes--;
+    }
+
+    private void set(int address, int value) {
+        int n = leaves + address;
+        max[n] = value;
+        for (n >>= 1; n > 0; n >>= 1) {
+            max[n] = Math.max(max[2 * n], max[2 * n + 1]);
+        }
+    }
+
+    private int firstFrom(int from, int need) {
+        return firstFrom(1, 0, leaves, from, need);
+    }
+
+    private int firstFrom(int n, int lo, int hi, int from, int need) {
+        if (hi <= from || max[n] < need)
+            return -1;
+        if (n >= leaves)
+            return n - leaves;
+        int mid = (lo + hi) >>> 1;
+        int left = firstFrom(2 * n, lo, mid, from, need);
+        return left != -1 ? left : firstFrom(2 * n + 1, mid, hi, from, need);
+    }
+
+    int largestHole() {
+        return Math.max(0, max[1]);
+    }
+
+    void forEachPartition(PartitionVisitor visitor) {
+        for (int a = 0; a < total; ) {
+            int size = Math.abs(tags[a]);
+            visitor.partition(a, size, tags[a] < 0);
+            a += size;
+        }
+    }
+}
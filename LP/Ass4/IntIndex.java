@@ -0,0 +1,89 @@
+package Ass4;
+
+import java.util.*;
+
+/*
+ * Hash map from int keys to non-negative int values without boxing: linear
+ * probing over a power-of-two table kept at most half full. remove() shifts the
+ * entries after the removed one back instead of leaving tombstones, so probes
+ * stay short however many keys come and go. get() returns -1 for a missing key.
+ */
+class IntIndex {
+    private int[] keys, values; // values[i] == -1: slot empty
+    private int mask, size = 0;
+
+    IntIndex(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(2, expected) * 2 - 1) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, -1);
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int key) {
+        for (int i = hash(key) & mask; values[i] != -1; i = (i + 1) & mask) {
+            if (keys[i] == key)
+                return values[i];
+        }
+        return -1;
+    }
+
+    void put(int key, int value) {
+        int i = hash(key) & mask;
+        for (; values[i] != -1; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length)
+            grow();
+    }
+
+    // Returns the removed value, or -1 if the key was missing.
+    int remove(int key) {
+        int i = hash(key) & mask;
+        while (values[i] != -1 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        int value = values[i];
+        if (value == -1)
+            return -1;
+        // Move back every later entry of the run whose home is not between the hole and itself.
+        for (int j = (i + 1) & mask; values[j] != -1; j = (j + 1) & mask) {
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        values[i] = -1;
+        size--;
+        return value;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys, oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        Arrays.fill(values, -1);
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != -1)
+                put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
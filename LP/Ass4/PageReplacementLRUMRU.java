@@ -1,5 +1,7 @@
 package Ass4;
 
+import java.io.*;
+import java.nio.file.*;
 import java.util.*;
 
 public class PageReplacementLRUMRU {
@@ -7,10 +9,24 @@ public class PageReplacementLRUMRU {
     enum Strategy {
         LRU,
         MRU,
-        FIFO
+        FIFO,
+        CLOCK,
+        SECOND_CHANCE,
+        LFU,
+        ARC,
+        TWO_Q,
+        LIRS,
+        OPT
     }
 
     public static void main(String[] args) {
+        if (args.length > 0) {
+            if (args[0].equals("--run"))
+                run(args);
+            else
+                System.out.println(USAGE);
+            return;
+        }
         Scanner sc = new Scanner(System.in);
 
         System.out.print("Enter number of frames: ");
@@ -30,16 +46,30 @@ public class PageReplacementLRUMRU {
             System.out.println("1. LRU");
             System.out.println("2. MRU");
             System.out.println("3. FIFO");
-            System.out.println("4. Exit");
-            System.out.print("Enter choice [1-4]: ");
+            System.out.println("4. CLOCK");
+            System.out.println("5. Second Chance");
+            System.out.println("6. LFU");
+            System.out.println("7. ARC");
+            System.out.println("8. 2Q");
+            System.out.println("9. LIRS");
+            System.out.println("10. OPT (optimal)");
+            System.out.println("11. Exit");
+            System.out.print("Enter choice [1-11]: ");
             int choice = sc.nextInt();
-            if (choice == 4) break;
+            if (choice == 11) break;
 
             Strategy strat;
             switch (choice) {
                 case 1: strat = Strategy.LRU; break;
                 case 2: strat = Strategy.MRU; break;
                 case 3: strat = Strategy.FIFO; break;
+                case 4: strat = Strategy.CLOCK; break;
+                case 5: strat = Strategy.SECOND_CHANCE; break;
+                case 6: strat = Strategy.LFU; break;
+                case 7: strat = Strategy.ARC; break;
+                case 8: strat = Strategy.TWO_Q; break;
+                case 9: strat = Strategy.LIRS; break;
+                case 10: strat = Strategy.OPT; break;
                 default:
                     System.out.println("Invalid choice!");
                     continue;
@@ -52,9 +82,9 @@ public class PageReplacementLRUMRU {
     }
 
     private static void simulate(int[] referenceString, int frames, Strategy strat) {
-        List<Integer> frameList = new ArrayList<>();
-        Queue<Integer> fifoQueue = new LinkedList<>();
-        Map<Integer, Integer> frequency = new HashMap<>(); // track frequency of each page
+        ReplacementPolicy policy = strat == Strategy.OPT ? ReplacementPolicy.optimal(frames, referenceString)
+                : ReplacementPolicy.create(strat, frames);
+        IntIndex frequency = new IntIndex(16); // references to each page so far
 
         int pageFaults = 0, hits = 0;
 
@@ -63,53 +93,19 @@ public class PageReplacementLRUMRU {
                 "Reference", "Frames", "Frequencies", "Action", "Status");
 
         for (int page : referenceString) {
-            frequency.put(page, frequency.getOrDefault(page, 0) + 1); // update frequency
+            frequency.put(page, Math.max(0, frequency.get(page)) + 1); // update frequency
 
-            if (frameList.contains(page)) {
+            int before = policy.resident;
+            if (policy.access(page)) {
                 hits++;
-                String action = "Page HIT";
-
-                if (strat == Strategy.LRU || strat == Strategy.MRU) {
-                    // Move page to end (most recent) for recency tracking
-                    frameList.remove((Integer) page);
-                    frameList.add(page);
-                }
-                // FIFO does not update order on hit
-
                 System.out.printf("%-10d %-25s %-30s %-20s %-12s\n",
-                        page, frameList, getFrameFrequencies(frameList, frequency), action, "HIT");
-
+                        page, frames(policy), getFrameFrequencies(policy, frequency), "Page HIT", "HIT");
             } else {
                 pageFaults++;
-                String action;
-
-                if (frameList.size() < frames) {
-                    frameList.add(page);
-                    fifoQueue.add(page);
-                    action = "Added " + page + " (empty slot)";
-                } else {
-                    int victim;
-                    if (strat == Strategy.LRU) {
-                        victim = frameList.get(0); // least recently used
-                        frameList.remove(0);
-                        frameList.add(page);
-                        action = "Replaced (LRU) " + victim + " with " + page;
-                    } else if (strat == Strategy.MRU) {
-                        victim = frameList.get(frameList.size() - 1); // most recently used
-                        frameList.remove(frameList.size() - 1);
-                        frameList.add(page);
-                        action = "Replaced (MRU) " + victim + " with " + page;
-                    } else { // FIFO
-                        victim = fifoQueue.poll();
-                        frameList.remove((Integer) victim);
-                        frameList.add(page);
-                        fifoQueue.add(page);
-                        action = "Replaced (FIFO) " + victim + " with " + page;
-                    }
-                }
-
+                String action = policy.resident > before ? "Added " + page + " (empty slot)"
+                        : "Replaced (" + strat + ") " + policy.victim + " with " + page;
                 System.out.printf("%-10d %-25s %-30s %-20s %-12s\n",
-                        page, frameList, getFrameFrequencies(frameList, frequency), action, "FAULT");
+                        page, frames(policy), getFrameFrequencies(policy, frequency), action, "FAULT");
             }
         }
 
@@ -119,16 +115,148 @@ public class PageReplacementLRUMRU {
         double hitRatio = (double) hits / referenceString.length;
         double faultRatio = (double) pageFaults / referenceString.length;
         System.out.printf("Hit Ratio: %.2f | Fault Ratio: %.2f\n", hitRatio, faultRatio);
+        if (strat != Strategy.OPT) {
+            long optimal = faults(ReplacementPolicy.optimal(frames, referenceString), referenceString);
+            System.out.printf("Faults vs OPT: %.2f (OPT: %d faults)\n",
+                    optimal == 0 ? 1.0 : (double) pageFaults / optimal, optimal);
+        }
     }
 
-    // Helper to print frequencies of only the pages in current frames
-    private static String getFrameFrequencies(List<Integer> frameList, Map<Integer, Integer> frequency) {
-        Map<Integer, Integer> freqInFrame = new LinkedHashMap<>();
-        for (int f : frameList) {
-            freqInFrame.put(f, frequency.getOrDefault(f, 0));
+    private static long faults(ReplacementPolicy policy, int[] referenceString) {
+        long faults = 0;
+        for (int page : referenceString) {
+            if (!policy.access(page))
+                faults++;
         }
+        return faults;
+    }
+
+    private static String frames(ReplacementPolicy policy) {
+        StringJoiner frames = new StringJoiner(", ", "[", "]");
+        policy.forEachResident(page -> frames.add(Integer.toString(page)));
+        return frames.toString();
+    }
+
+    // Helper to print frequencies of only the pages in current frames
+    private static String getFrameFrequencies(ReplacementPolicy policy, IntIndex frequency) {
+        StringJoiner freqInFrame = new StringJoiner(", ", "{", "}");
+        policy.forEachResident(page -> freqInFrame.add(page + "=" + frequency.get(page)));
         return freqInFrame.toString();
     }
+
+    static final String USAGE = "Usage: PageReplacementLRUMRU --run frames"
+            + " [all|lru,mru,fifo,clock,second_chance,lfu,arc,2q,lirs,opt] [--trace file]"
+            + " [--refs n] [--pages p] [--pattern uniform|zipf|loop|hotcold] [--seed s]";
+
+    // Runs long reference strings without printing each reference: generated
+    // from a seed, or a file of 4-byte page numbers (see ReferenceStream).
+    // When OPT is asked for it runs first and every policy's faults are also
+    // given as a ratio to OPT's. It needs the whole string in memory, 8 bytes
+    // per reference while its next-use index is built, so it is skipped when
+    // the heap cannot hold that.
+    static void run(String[] args) {
+        List<Strategy> strategies = new ArrayList<>(Arrays.asList(Strategy.values()));
+        ReferenceStream references;
+        int frames;
+        try {
+            if (args.length < 2)
+                throw new IllegalArgumentException();
+            frames = Integer.parseInt(args[1]);
+            String trace = null, pattern = "zipf";
+            long count = 10_000_000, seed = 42;
+            int pages = -1;
+            int i = 2;
+            if (i < args.length && !args[i].startsWith("--")) {
+                String list = args[i++];
+                if (!list.equals("all")) {
+                    strategies.clear();
+                    for (String name : list.split(",")) {
+                        strategies.add(Strategy.valueOf(name.toUpperCase().replace("2Q", "TWO_Q")));
+                    }
+                }
+            }
+            for (; i < args.length; i += 2) {
+                if (i + 1 >= args.length)
+                    throw new IllegalArgumentException(args[i]);
+                String flag = args[i], value = args[i + 1];
+                if (flag.equals("--trace")) {
+                    trace = value;
+                } else if (flag.equals("--refs")) {
+                    count = (long) Double.parseDouble(value); // accepts 1e9
+                } else if (flag.equals("--pages")) {
+                    pages = (int) Double.parseDouble(value);
+                } else if (flag.equals("--pattern")) {
+                    pattern = value;
+                } else if (flag.equals("--seed")) {
+                    seed = Long.parseLong(value);
+                } else {
+                    throw new IllegalArgumentException(flag);
+                }
+            }
+            if (frames < 1 || count < 0)
+                throw new IllegalArgumentException();
+            try {
+                references = trace != null ? ReferenceStream.mapped(Paths.get(trace))
+                        : ReferenceStream.generated(pattern, count, pages > 0 ? pages : (int) Math.min(Integer.MAX_VALUE, 4L * frames), seed);
+            } catch (IOException e) {
+                System.out.println("Cannot read " + trace + ": " + e.getMessage());
+                return;
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        System.out.printf("%d frames, %d references\n", frames, references.count);
+        long[] baseline = null;
+        if (strategies.remove(Strategy.OPT)) {
+            Runtime runtime = Runtime.getRuntime();
+            long needed = 8 * references.count;
+            long free = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+            if (references.count > Integer.MAX_VALUE - 8 || needed > free)
+                System.out.printf("OPT skipped: needs %d MB for the reference string, %d MB of heap free\n",
+                        needed >> 20, free >> 20);
+            else
+                baseline = measure(ReplacementPolicy.optimal(frames, load(references)), references);
+        }
+        long optimal = baseline == null ? -1 : baseline[0];
+
+        System.out.printf("%-14s %-14s %-14s %-10s %-10s %-8s\n", "Policy", "Faults", "Hits", "Hit%", "ns/ref",
+                "vs OPT");
+        if (baseline != null)
+            print(Strategy.OPT, baseline, references.count, optimal);
+        for (Strategy strategy : strategies) {
+            print(strategy, measure(ReplacementPolicy.create(strategy, frames), references), references.count,
+                    optimal);
+        }
+    }
+
+    private static int[] load(ReferenceStream references) {
+        int[] referenceString = new int[(int) references.count];
+        references.reset();
+        for (int r = 0; r < referenceString.length; r++) {
+            referenceString[r] = references.next();
+        }
+        return referenceString;
+    }
+
+    // Returns {faults, nanoseconds}; OPT's next-use pass is not timed.
+    private static long[] measure(ReplacementPolicy policy, ReferenceStream references) {
+        references.reset();
+        long faults = 0;
+        long begin = System.nanoTime();
+        for (long r = 0; r < references.count; r++) {
+            if (!policy.access(references.next()))
+                faults++;
+        }
+        return new long[] { faults, System.nanoTime() - begin };
+    }
+
+    private static void print(Strategy strategy, long[] result, long count, long optimal) {
+        String ratio = optimal < 0 ? "-" : String.format("%.3f", optimal == 0 ? 1.0 : (double) result[0] / optimal);
+        System.out.printf("%-14s %-14d %-14d %-10.2f %-10.1f %-8s\n", strategy, result[0], count - result[0],
+                count == 0 ? 0 : 100.0 * (count - result[0]) / count, (double) result[1] / Math.max(1, count), ratio);
+    }
 }
 
 /*
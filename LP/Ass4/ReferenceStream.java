@@ -0,0 +1,119 @@
+package Ass4;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+
+/*
+ * A reference string read one page at a time, so traces far longer than
+ * memory can be simulated. Either generated from a seed:
+ *
+ *   uniform  every page of 0..pages-1 equally likely
+ *   zipf     page k with probability about 1/(k+1): a few hot pages, a long tail
+ *   loop     0, 1, ..., pages-1 over and over, the case that defeats LRU
+ *   hotcold  nine references in ten go to the first tenth of the pages
+ *
+ * or read from a file of big-endian 4-byte page numbers, memory-mapped in
+ * windows of up to WINDOW bytes. reset() starts the same string again.
+ * Generated streams are seeded, so each replay sees the same string.
+ */
+abstract class ReferenceStream {
+    static final long WINDOW = 1L << 30;
+    static final List<String> PATTERNS = Arrays.asList("uniform", "zipf", "loop", "hotcold");
+
+    final long count;
+
+    ReferenceStream(long count) {
+        this.count = count;
+    }
+
+    abstract int next();
+
+    abstract void reset();
+
+    static ReferenceStream generated(String pattern, long count, int pages, long seed) {
+        if (pages < 1)
+            throw new IllegalArgumentException("Need at least one page");
+        int kind = PATTERNS.indexOf(pattern);
+        if (kind == -1)
+            throw new IllegalArgumentException("Unknown pattern " + pattern);
+        return new Generated(kind, count, pages, seed);
+    }
+
+    static ReferenceStream mapped(Path file) throws IOException {
+        return new Mapped(file);
+    }
+
+    private static class Generated extends ReferenceStream {
+        final int kind, pages, hot;
+        final long seed;
+        final double logPages;
+        SplittableRandom random;
+        int position;
+
+        Generated(int kind, long count, int pages, long seed) {
+            super(count);
+            this.kind = kind;
+            this.pages = pages;
+            this.seed = seed;
+            hot = Math.max(1, pages / 10);
+            logPages = Math.log(pages + 1.0);
+            reset();
+        }
+
+        int next() {
+            switch (kind) {
+                case 0:
+                    return random.nextInt(pages);
+                case 1:
+                    return Math.min(pages - 1, (int) Math.exp(random.nextDouble() * logPages) - 1);
+                case 2:
+                    int page = position;
+                    position = position + 1 == pages ? 0 : position + 1;
+                    return page;
+                default:
+                    return random.nextInt(10) != 0 || hot == pages ? random.nextInt(hot)
+                            : hot + random.nextInt(pages - hot);
+            }
+        }
+
+        void reset() {
+            random = new SplittableRandom(seed);
+            position = 0;
+        }
+    }
+
+    private static class Mapped extends ReferenceStream {
+        final Path file;
+        MappedByteBuffer window;
+        long windowEnd;
+
+        Mapped(Path file) throws IOException {
+            super(Files.size(file) / 4);
+            this.file = file;
+            reset();
+        }
+
+        int next() {
+            if (!window.hasRemaining())
+                map(windowEnd);
+            return window.getInt();
+        }
+
+        void reset() {
+            map(0);
+        }
+
+        private void map(long from) {
+            long bytes = Math.min(count * 4 - from, WINDOW);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, from, bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            windowEnd = from + bytes;
+        }
+    }
+}
@@ -0,0 +1,762 @@
+package Ass4;
+
+import java.util.*;
+import java.util.function.*;
+
+/*
+ * The pages held in a fixed number of frames and the rule that picks which
+ * one to evict. access(page) references a page, loading it on a fault, and
+ * returns whether it was a hit; after a fault that evicted, victim holds the
+ * evicted page. Every access is O(1) apart from where a policy says otherwise.
+ *
+ *   LRU            evicts the page referenced longest ago
+ *   MRU            evicts the page referenced last
+ *   FIFO           evicts the page loaded longest ago; hits change nothing
+ *   CLOCK          frames in a circle with a referenced bit each; the hand
+ *                  clears set bits as it passes and evicts at the first clear one
+ *   SECOND_CHANCE  FIFO whose oldest page, if referenced since it was loaded,
+ *                  loses the bit and goes to the back instead; same victims as
+ *                  CLOCK, in its queue form
+ *   LFU            evicts the page with the fewest references since it was
+ *                  loaded, the oldest of those on a tie
+ *   ARC            Megiddo and Modha's adaptive replacement cache: recency (T1)
+ *                  and frequency (T2) lists plus ghosts of what each evicted,
+ *                  which move the target size of T1
+ *   TWO_Q          Johnson and Shasha's 2Q: new pages wait in a FIFO (A1in, a
+ *                  quarter of the frames) and only one referenced again after
+ *                  leaving it (remembered in A1out) joins the LRU main list
+ *   LIRS           Jiang and Zhang's LIRS: pages re-referenced at a short
+ *                  distance (LIR) keep 99% of the frames, the rest (HIR) share
+ *                  the remaining ones
+ *   OPT            Belady's optimal policy, the baseline for the others: evicts
+ *                  the page referenced again furthest in the future; built
+ *                  from the whole reference string with optimal()
+ *
+ * LRU, MRU and FIFO keep the resident pages in a doubly linked list threaded
+ * through arrays indexed by frame, oldest first, with an IntIndex from page to
+ * frame; a hit unlinks its frame and appends it again, and an eviction reuses
+ * the victim's frame. The others build the same kind of lists with Chains over
+ * the entries of a Directory, which also holds the ghosts of evicted pages.
+ * CLOCK and SECOND_CHANCE are O(1) amortised, OPT O(log frames), the rest O(1)
+ * per access.
+ */
+abstract class ReplacementPolicy {
+    final int frames;
+    int resident = 0;
+    int victim = -1;
+
+    ReplacementPolicy(int frames) {
+        if (frames < 1)
+            throw new IllegalArgumentException("Need at least one frame");
+        this.frames = frames;
+    }
+
+    static ReplacementPolicy create(PageReplacementLRUMRU.Strategy strategy, int frames) {
+        switch (strategy) {
+            case CLOCK: return new Clock(frames);
+            case SECOND_CHANCE: return new SecondChance(frames);
+            case LFU: return new Lfu(frames);
+            case ARC: return new Arc(frames);
+            case TWO_Q: return new TwoQ(frames);
+            case LIRS: return new Lirs(frames);
+            case OPT: throw new IllegalArgumentException("OPT needs the reference string, see optimal()");
+            default: return new Linked(strategy, frames);
+        }
+    }
+
+    // OPT for this reference string, which must then be accessed in order.
+    static ReplacementPolicy optimal(int frames, int[] references) {
+        return new Optimal(frames, references);
+    }
+
+    abstract boolean access(int page);
+
+    // The resident pages in the order the simulation prints them.
+    abstract void forEachResident(IntConsumer action);
+
+    static class Linked extends ReplacementPolicy {
+        final PageReplacementLRUMRU.Strategy strategy;
+        final IntIndex frameOf;
+        final int[] page, prev, next;
+        int head = -1, tail = -1;
+
+        Linked(PageReplacementLRUMRU.Strategy strategy, int frames) {
+            super(frames);
+            this.strategy = strategy;
+            frameOf = new IntIndex(frames);
+            page = new int[frames];
+            prev = new int[frames];
+            next = new int[frames];
+        }
+
+        boolean access(int p) {
+            victim = -1;
+            int f = frameOf.get(p);
+            if (f != -1) {
+                if (strategy != PageReplacementLRUMRU.Strategy.FIFO && f != tail) {
+                    unlink(f);
+                    append(f);
+                }
+                return true;
+            }
+            if (resident < frames) {
+                f = resident++;
+            } else {
+                f = strategy == PageReplacementLRUMRU.Strategy.MRU ? tail : head;
+                victim = page[f];
+                frameOf.remove(victim);
+                unlink(f);
+            }
+            page[f] = p;
+            frameOf.put(p, f);
+            append(f);
+            return false;
+        }
+
+        private void unlink(int f) {
+            if (prev[f] != -1)
+                next[prev[f]] = next[f];
+            else
+                head = next[f];
+            if (next[f] != -1)
+                prev[next[f]] = prev[f];
+            else
+                tail = prev[f];
+        }
+
+        private void append(int f) {
+            prev[f] = tail;
+            next[f] = -1;
+            if (tail != -1)
+                next[tail] = f;
+            else
+                head = f;
+            tail = f;
+        }
+
+        void forEachResident(IntConsumer action) {
+            for (int f = head; f != -1; f = next[f]) {
+                action.accept(page[f]);
+            }
+        }
+    }
+
+    /*
+     * Doubly linked lists through shared link arrays: entries 0..n-1, each on
+     * at most one of the lists at a time, every list oldest (head) first.
+     */
+    static class Chains {
+        final int[] prev, next, list;
+        final int[] head, tail, size;
+
+        Chains(int entries, int lists) {
+            prev = new int[entries];
+            next = new int[entries];
+            list = new int[entries];
+            Arrays.fill(list, -1);
+            head = new int[lists];
+            tail = new int[lists];
+            size = new int[lists];
+            Arrays.fill(head, -1);
+            Arrays.fill(tail, -1);
+        }
+
+        void add(int l, int e) {
+            insertAfter(l, tail[l], e);
+        }
+
+        // Puts e on list l right after entry at, or first if at is -1.
+        void insertAfter(int l, int at, int e) {
+            prev[e] = at;
+            next[e] = at == -1 ? head[l] : next[at];
+            if (next[e] != -1)
+                prev[next[e]] = e;
+            else
+                tail[l] = e;
+            if (at != -1)
+                next[at] = e;
+            else
+                head[l] = e;
+            list[e] = l;
+            size[l]++;
+        }
+
+        void remove(int e) {
+            int l = list[e];
+            if (prev[e] != -1)
+                next[prev[e]] = next[e];
+            else
+                head[l] = next[e];
+            if (next[e] != -1)
+                prev[next[e]] = prev[e];
+            else
+                tail[l] = prev[e];
+            list[e] = -1;
+            size[l]--;
+        }
+
+        void moveToTail(int l, int e) {
+            remove(e);
+            add(l, e);
+        }
+    }
+
+    // Entries for the pages a policy tracks, resident or remembered, found by page.
+    abstract static class Directory extends ReplacementPolicy {
+        final IntIndex entryOf;
+        final int[] page;
+        private final int[] spare;
+        private int spares;
+
+        Directory(int frames, int entries) {
+            super(frames);
+            entryOf = new IntIndex(entries);
+            page = new int[entries];
+            spare = new int[entries];
+            for (int e = 0; e < entries; e++) {
+                spare[e] = entries - 1 - e; // lowest first
+            }
+            spares = entries;
+        }
+
+        int newEntry(int p) {
+            int e = spare[--spares];
+            page[e] = p;
+            entryOf.put(p, e);
+            return e;
+        }
+
+        void dropEntry(int e) {
+            entryOf.remove(page[e]);
+            spare[spares++] = e;
+        }
+    }
+
+    // Entries are frames, in the order of the circle.
+    static class Clock extends Directory {
+        final boolean[] referenced;
+        int hand = 0;
+
+        Clock(int frames) {
+            super(frames, frames);
+            referenced = new boolean[frames];
+        }
+
+        boolean access(int p) {
+            victim = -1;
+            int e = entryOf.get(p);
+            if (e != -1) {
+                referenced[e] = true;
+                return true;
+            }
+            if (resident < frames) {
+                resident++;
+            } else {
+                while (referenced[hand]) {
+                    referenced[hand] = false;
+                    hand = hand + 1 == frames ? 0 : hand + 1;
+                }
+                victim = page[hand];
+                dropEntry(hand);
+                hand = hand + 1 == frames ? 0 : hand + 1;
+            }
+            e = newEntry(p); // the free frame, or the victim's
+            referenced[e] = true;
+            return false;
+        }
+
+        void forEachResident(IntConsumer action) {
+            for (int e = 0; e < resident; e++) {
+                action.accept(page[e]);
+            }
+        }
+    }
+
+    static class SecondChance extends Directory {
+        final Chains queue;
+        final boolean[] referenced;
+
+        SecondChance(int frames) {
+            super(frames, frames);
+            queue = new Chains(frames, 1);
+            referenced = new boolean[frames];
+        }
+
+        boolean access(int p) {
+            victim = -1;
+            int e = entryOf.get(p);
+            if (e != -1) {
+                referenced[e] = true;
+                return true;
+            }
+            if (resident < frames) {
+                resident++;
+            } else {
+                int oldest;
+                while (referenced[oldest = queue.head[0]]) {
+                    referenced[oldest] = false;
+                    queue.moveToTail(0, oldest);
+                }
+                victim = page[oldest];
+                queue.remove(oldest);
+                dropEntry(oldest);
+            }
+            e = newEntry(p);
+            referenced[e] = true;
+            queue.add(0, e);
+            return false;
+        }
+
+        void forEachResident(IntConsumer action) {
+            for (int e = queue.head[0]; e != -1; e = queue.next[e]) {
+                action.accept(page[e]);
+            }
+        }
+    }
+
+    /*
+     * O(1) LFU: a bucket per reference count in use, the buckets in one list
+     * by increasing count and each holding its pages oldest first. A hit moves
+     * the page to the next bucket, creating it if the next count is missing;
+     * the victim is the oldest page of the first bucket. Counts start over
+     * when a page is loaded again.
+     */
+    static class Lfu extends Directory {
+        final Chains members; // list b: the pages in bucket b
+        final Chains buckets; // list 0: buckets by count
+        final long[] count;   // per bucket
+        private final int[] spareBuckets;
+        private int spareBucketCount;
+
+        Lfu(int frames) {
+            super(frames, frames);
+            members = new Chains(frames, frames + 1);
+            buckets = new Chains(frames + 1, 1);
+            count = new long[frames + 1];
+            spareBuckets = new int[frames + 1];
+            for (int b = 0; b <= frames; b++) {
+                spareBuckets[b] = frames - b;
+            }
+            spareBucketCount = frames + 1;
+        }
+
+        boolean access(int p) {
+            victim = -1;
+            int e = entryOf.get(p);
+            if (e != -1) {
+                int b = members.list[e], nb = buckets.next[b];
+                if (nb == -1 || count[nb] != count[b] + 1) {
+                    nb = spareBuckets[--spareBucketCount];
+                    count[nb] = count[b] + 1;
+                    buckets.insertAfter(0, b, nb);
+                }
+                leave(e);
+                members.add(nb, e);
+                return true;
+            }
+            if (resident < frames) {
+                resident++;
+            } else {
+                int v = members.head[buckets.head[0]];
+                victim = page[v];
+                leave(v);
+                dropEntry(v);
+            }
+            e = newEntry(p);
+            int first = buckets.head[0];
+            if (first == -1 || count[first] != 1) {
+                first = spareBuckets[--spareBucketCount];
+                count[first] = 1;
+                buckets.insertAfter(0, -1, first);
+            }
+            members.add(first, e);
+            return false;
+        }
+
+        // Takes e out of its bucket, dropping the bucket if that empties it.
+        private void leave(int e) {
+            int b = members.list[e];
+            members.remove(e);
+            if (members.size[b] == 0) {
+                buckets.remove(b);
+                spareBuckets[spareBucketCount++] = b;
+            }
+        }
+
+        void forEachResident(IntConsumer action) {
+            for (int b = buckets.head[0]; b != -1; b = buckets.next[b]) {
+                for (int e = members.head[b]; e != -1; e = members.next[e]) {
+                    action.accept(page[e]);
+                }
+            }
+        }
+    }
+
+    /*
+     * ARC as in the paper: T1 holds pages seen once recently, T2 pages seen at
+     * least twice, B1 and B2 the ghosts of pages evicted from each, and
+     * target is the size T1 aims for. A ghost hit in B1 grows the target and
+     * one in B2 shrinks it. All four lists together hold at most 2 * frames
+     * pages.
+     */
+    static class Arc extends Directory {
+        static final int T1 = 0, T2 = 1, B1 = 2, B2 = 3;
+        final Chains lists;
+        int target = 0;
+
+        Arc(int frames) {
+            super(frames, 2 * frames);
+            lists = new Chains(2 * frames, 4);
+        }
+
+        boolean access(int p) {
+            victim = -1;
+            int[] size = lists.size;
+            int e = entryOf.get(p);
+            if (e != -1 && lists.list[e] <= T2) {
+                lists.moveToTail(T2, e);
+                return true;
+            }
+            if (e != -1) {
+                boolean inB2 = lists.list[e] == B2;
+                if (inB2)
+                    target = Math.max(0, target - Math.max(size[B1] / size[B2], 1));
+                else
+                    target = Math.min(frames, target + Math.max(size[B2] / size[B1], 1));
+                replace(inB2);
+                lists.moveToTail(T2, e);
+                resident++;
+                return false;
+            }
+            if (size[T1] + size[B1] == frames) {
+                if (size[T1] < frames) {
+                    drop(lists.head[B1]);
+                    replace(false);
+                } else {
+                    int v = lists.head[T1];
+                    victim = page[v];
+                    drop(v);
+                    resident--;
+                }
+            } else if (size[T1] + size[T2] + size[B1] + size[B2] >= frames) {
+                if (size[T1] + size[T2] + size[B1] + size[B2] == 2 * frames)
+                    drop(lists.head[B2]);
+                replace(false);
+            }
+            lists.add(T1, newEntry(p));
+            resident++;
+            return false;
+        }
+
+        // Evicts the oldest page of T1 or T2 into the matching ghost list.
+        private void replace(boolean inB2) {
+            int t1 = lists.size[T1];
+            int v;
+            if (t1 >= 1 && ((inB2 && t1 == target) || t1 > target || lists.size[T2] == 0)) {
+                v = lists.head[T1];
+                lists.moveToTail(B1, v);
+            } else {
+                v = lists.head[T2];
+                lists.moveToTail(B2, v);
+            }
+            victim = page[v];
+            resident--;
+        }
+
+        private void drop(int e) {
+            lists.remove(e);
+            dropEntry(e);
+        }
+
+        void forEachResident(IntConsumer action) {
+            for (int l = T1; l <= T2; l++) {
+                for (int e = lists.head[l]; e != -1; e = lists.next[e]) {
+                    action.accept(page[e]);
+                }
+            }
+        }
+    }
+
+    // 2Q with A1in a quarter of the frames and A1out remembering half as many pages.
+    static class TwoQ extends Directory {
+        static final int IN = 0, MAIN = 1, OUT = 2;
+        final int inLimit, outLimit;
+        final Chains lists;
+
+        TwoQ(int frames) {
+            super(frames, frames + Math.max(1, frames / 2));
+            inLimit = Math.max(1, frames / 4);
+            outLimit = Math.max(1, frames / 2);
+            lists = new Chains(frames + outLimit, 3);
+        }
+
+        boolean access(int p) {
+            victim = -1;
+            int e = entryOf.get(p);
+            if (e != -1 && lists.list[e] == MAIN) {
+                lists.moveToTail(MAIN, e);
+                return true;
+            }
+            if (e != -1 && lists.list[e] == IN)
+                return true;
+            if (e != -1)
+                lists.remove(e); // back from A1out, before reclaiming can forget it
+            if (resident == frames)
+                reclaim();
+            resident++;
+            if (e != -1) {
+                lists.add(MAIN, e);
+            } else {
+                lists.add(IN, newEntry(p));
+            }
+            return false;
+        }
+
+        private void reclaim() {
+            int v;
+            if (lists.size[IN] > inLimit || lists.size[MAIN] == 0) {
+                v = lists.head[IN];
+                victim = page[v];
+                lists.moveToTail(OUT, v);
+                if (lists.size[OUT] > outLimit) {
+                    int forgotten = lists.head[OUT];
+                    lists.remove(forgotten);
+                    dropEntry(forgotten);
+                }
+            } else {
+                v = lists.head[MAIN];
+                victim = page[v];
+                lists.remove(v);
+                dropEntry(v);
+            }
+            resident--;
+        }
+
+        void forEachResident(IntConsumer action) {
+            for (int l = IN; l <= MAIN; l++) {
+                for (int e = lists.head[l]; e != -1; e = lists.next[e]) {
+                    action.accept(page[e]);
+                }
+            }
+        }
+    }
+
+    /*
+     * LIRS: the stack S orders pages by recency, LIR and HIR alike, including
+     * non-resident HIR pages (ghosts), and is pruned so its bottom is always a
+     * LIR page. Resident HIR pages wait in the queue Q for eviction. A HIR
+     * page referenced again while still in S has a shorter reuse distance than
+     * the bottom LIR page, so they swap status. Ghosts are capped at frames,
+     * the oldest forgotten first.
+     */
+    static class Lirs extends Directory {
+        static final byte LIR = 0, HIR = 1, GHOST = 2;
+        static final int RESIDENT = 0, GHOSTS = 1; // lists of queue
+        final int lirLimit;
+        final byte[] status;
+        final Chains stack; // list 0, bottom first
+        final Chains queue; // resident HIR pages, and the ghosts in the order they left
+        int lirs = 0;
+
+        Lirs(int frames) {
+            super(frames, 2 * frames);
+            lirLimit = frames - Math.max(1, frames / 100);
+            status = new byte[2 * frames];
+            stack = new Chains(2 * frames, 1);
+            queue = new Chains(2 * frames, 2);
+        }
+
+        boolean access(int p) {
+            victim = -1;
+            int e = entryOf.get(p);
+            if (e != -1 && status[e] == LIR) {
+                boolean bottom = stack.head[0] == e;
+                stack.moveToTail(0, e);
+                if (bottom)
+                    prune();
+                return true;
+            }
+            if (e != -1 && status[e] == HIR) {
+                if (stack.list[e] != -1) {
+                    stack.moveToTail(0, e);
+                    queue.remove(e);
+                    promote(e);
+                } else {
+                    stack.add(0, e);
+                    queue.moveToTail(RESIDENT, e);
+                }
+                return true;
+            }
+
+            if (lirs < lirLimit) {
+                e = newEntry(p); // still filling the LIR frames, nothing is a ghost yet
+                stack.add(0, e);
+                status[e] = LIR;
+                lirs++;
+                resident++;
+                return false;
+            }
+            if (e != -1)
+                queue.remove(e); // off the ghost list, before evicting can forget it
+            if (resident == frames)
+                evict();
+            resident++;
+            if (e != -1) {
+                stack.moveToTail(0, e);
+                promote(e);
+            } else {
+                e = newEntry(p);
+                status[e] = HIR;
+                stack.add(0, e);
+                queue.add(RESIDENT, e);
+            }
+            return false;
+        }
+
+        // e, now on top of S, becomes LIR and the bottom LIR page becomes HIR.
+        private void promote(int e) {
+            status[e] = LIR;
+            lirs++;
+            prune();
+            int bottom = stack.head[0];
+            stack.remove(bottom);
+            status[bottom] = HIR;
+            lirs--;
+            queue.add(RESIDENT, bottom);
+            prune();
+        }
+
+        private void prune() {
+            for (int b = stack.head[0]; b != -1 && status[b] != LIR; b = stack.head[0]) {
+                stack.remove(b);
+                if (status[b] == GHOST) {
+                    queue.remove(b);
+                    dropEntry(b);
+                }
+            }
+        }
+
+        private void evict() {
+            int v = queue.head[RESIDENT];
+            victim = page[v];
+            queue.remove(v);
+            resident--;
+            if (stack.list[v] == -1) {
+                dropEntry(v);
+                return;
+            }
+            status[v] = GHOST;
+            queue.add(GHOSTS, v);
+            if (queue.size[GHOSTS] > frames) {
+                int forgotten = queue.head[GHOSTS];
+                queue.remove(forgotten);
+                stack.remove(forgotten);
+                dropEntry(forgotten);
+            }
+        }
+
+        void forEachResident(IntConsumer action) {
+            for (int e = stack.head[0]; e != -1; e = stack.next[e]) {
+                if (status[e] == LIR)
+                    action.accept(page[e]);
+            }
+            for (int e = queue.head[RESIDENT]; e != -1; e = queue.next[e]) {
+                action.accept(page[e]);
+            }
+        }
+    }
+
+    /*
+     * Belady's OPT. One backward pass over the reference string records, for
+     * every position, where the same page is referenced next (MAX_VALUE if
+     * never). Each resident frame is keyed by the next reference to its page in
+     * an indexed max-heap, so the victim is the root and a hit only moves its
+     * frame up after the key grows: O(log frames) per access. Frames are
+     * printed in frame order.
+     */
+    static class Optimal extends ReplacementPolicy {
+        final int[] nextUse;
+        final IntIndex frameOf;
+        final int[] page, key, heap, slot; // slot: position of each frame in heap
+        int position = 0;
+
+        Optimal(int frames, int[] references) {
+            super(frames);
+            nextUse = new int[references.length];
+            IntIndex seen = new IntIndex(16);
+            for (int i = references.length - 1; i >= 0; i--) {
+                int later = seen.get(references[i]);
+                nextUse[i] = later == -1 ? Integer.MAX_VALUE : later;
+                seen.put(references[i], i);
+            }
+            frameOf = new IntIndex(frames);
+            page = new int[frames];
+            key = new int[frames];
+            heap = new int[frames];
+            slot = new int[frames];
+        }
+
+        boolean access(int p) {
+            victim = -1;
+            if (position == nextUse.length)
+                throw new IllegalStateException("OPT is past the end of its reference string");
+            int next = nextUse[position++];
+            int f = frameOf.get(p);
+            if (f != -1) {
+                key[f] = next;
+                up(slot[f]);
+                return true;
+            }
+            if (resident < frames) {
+                f = resident++;
+                key[f] = next;
+                heap[resident - 1] = f;
+                slot[f] = resident - 1;
+                up(resident - 1);
+            } else {
+                f = heap[0];
+                victim = page[f];
+                frameOf.remove(victim);
+                key[f] = next;
+                down(0);
+            }
+            page[f] = p;
+            frameOf.put(p, f);
+            return false;
+        }
+
+        private void up(int i) {
+            int f = heap[i];
+            while (i > 0 && key[heap[(i - 1) / 2]] < key[f]) {
+                place(heap[(i - 1) / 2], i);
+                i = (i - 1) / 2;
+            }
+            place(f, i);
+        }
+
+        private void down(int i) {
+            int f = heap[i];
+            while (2 * i + 1 < resident) {
+                int c = 2 * i + 1;
+                if (c + 1 < resident && key[heap[c + 1]] > key[heap[c]])
+                    c++;
+                if (key[heap[c]] <= key[f])
+                    break;
+                place(heap[c], i);
+                i = c;
+            }
+            place(f, i);
+        }
+
+        private void place(int f, int i) {
+            heap[i] = f;
+            slot[f] = i;
+        }
+
+        void forEachResident(IntConsumer action) {
+            for (int f = 0; f < resident; f++) {
+                action.accept(page[f]);
+            }
+        }
+    }
+}